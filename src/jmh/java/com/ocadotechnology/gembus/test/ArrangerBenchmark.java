@@ -0,0 +1,135 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the {@link Arranger} entry points for the type shapes that are common in test suites.
+ * Run with {@code -prof gc} (the default in the benchmark profile) to get B/op next to ops/s.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArrangerBenchmark {
+
+    public enum Shape {
+        FLAT_POJO(FlatPojo.class),
+        RECORD(FlatRecord.class),
+        SEALED_INTERFACE(SealedShape.class),
+        COLLECTIONS(WithCollections.class),
+        CUSTOM_ARRANGER(CustomArranged.class);
+
+        final Class<?> type;
+
+        Shape(Class<?> type) {
+            this.type = type;
+        }
+    }
+
+    @Param
+    public Shape shape;
+
+    private Class<?> type;
+
+    @Setup
+    public void setUp() {
+        type = shape.type;
+    }
+
+    @Benchmark
+    public Object some() {
+        return Arranger.some(type);
+    }
+
+    @Benchmark
+    public void someObjects(Blackhole blackhole) {
+        Arranger.someObjects(type, 10).forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public Object someSimplified() {
+        return Arranger.someSimplified(type);
+    }
+}
+
+class FlatPojo {
+    String name;
+    String description;
+    Long id;
+    int quantity;
+    double weight;
+    boolean active;
+    BigDecimal price;
+    LocalDate created;
+}
+
+record FlatRecord(String name, String description, Long id, int quantity, double weight, boolean active,
+                  BigDecimal price, LocalDate created) {
+}
+
+sealed interface SealedShape permits SealedShapeRecord, SealedShapeClass {
+}
+
+record SealedShapeRecord(String name, Integer value) implements SealedShape {
+}
+
+final class SealedShapeClass implements SealedShape {
+    String name;
+    Long value;
+}
+
+class WithCollections {
+    List<String> names;
+    Set<Long> ids;
+    Map<String, FlatPojo> byName;
+    List<FlatRecord> records;
+}
+
+class CustomArranged {
+    String name;
+    BigDecimal price;
+}
+
+class CustomArrangedArranger extends CustomArranger<CustomArranged> {
+    @Override
+    protected CustomArranged instance() {
+        CustomArranged result = enhancedRandom.nextObject(CustomArranged.class);
+        result.price = BigDecimal.valueOf(Arranger.somePositiveLong(9_999L));
+        return result;
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of the static {@link Arranger} methods when called from many threads at once, as in parallel JUnit execution.
+ * All threads share the same engines and randomizers. Run it through {@link ThreadScalingRunner} to get the throughput
+ * for 1, 2, 4, ... threads, or with {@code -t} for a single thread count.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(Threads.MAX)
+@Fork(1)
+public class ArrangerContentionBenchmark {
+
+    private static final Map<String, Supplier<?>> overrides = Map.of("name", () -> "overridden");
+
+    @Benchmark
+    public Object some() {
+        return Arranger.some(FlatPojo.class);
+    }
+
+    @Benchmark
+    public Object someWithOverrides() {
+        return Arranger.some(FlatRecord.class, overrides);
+    }
+
+    @Benchmark
+    public String someText() {
+        return Arranger.someText();
+    }
+
+    @Benchmark
+    public String someEmail() {
+        return Arranger.someEmail();
+    }
+
+    @Benchmark
+    public int someInteger() {
+        return Arranger.someInteger();
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of arranging a recursive object graph depending on {@code arranger.maxRandomizationDepth}.
+ * The property is read when the Arranger engines are built, so each depth needs its own fork - keep {@code @Fork} above 0.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ArrangerNestingDepthBenchmark {
+
+    @Param({"2", "4", "6"})
+    public String maxRandomizationDepth;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        System.setProperty(PropertiesWrapper.maxRandomizationDepth, maxRandomizationDepth);
+        ArrangerSettings.reload();
+    }
+
+    @Benchmark
+    public Object some() {
+        return Arranger.some(GraphNode.class);
+    }
+
+    @Benchmark
+    public Object someSimplified() {
+        return Arranger.someSimplified(GraphNode.class);
+    }
+}
+
+class GraphNode {
+    String name;
+    Long id;
+    GraphNode left;
+    GraphNode right;
+    List<GraphLeaf> leaves;
+}
+
+class GraphLeaf {
+    String label;
+    Integer weight;
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.IterationParams;
+import org.openjdk.jmh.runner.IterationType;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.DoubleSummaryStatistics;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cold start of the Arranger: every invocation forks a fresh JVM (like a Surefire fork) with a synthetic jar or classes directory
+ * of {@code arrangers} custom arrangers and {@code fillerClasses} other classes in the scanned package.
+ * With {@code scanCache} the forks share an {@code arranger.scanCache.file}, written by the warm-up fork and read by the measured ones.
+ * The score is the wall time of the whole forked JVM. The time of the first {@code Arranger.some()} call and the heap
+ * retained after it are reported by {@link StartupProbe} and printed at the end of each trial
+ * (JMH sums auxiliary counters over iterations, so they are not a good fit for per-fork values).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ArrangerStartupBenchmark {
+
+    @Param({"10", "100", "300", "1000"})
+    public int arrangers;
+
+    @Param({"0", "10000"})
+    public int fillerClasses;
+
+    public enum Layout {
+        JAR,
+        DIRECTORY
+    }
+
+    @Param({"JAR", "DIRECTORY"})
+    public Layout layout;
+
+    @Param({"false", "true"})
+    public boolean scanCache;
+
+    private List<String> command;
+    private DoubleSummaryStatistics timeToFirstSomeMs;
+    private DoubleSummaryStatistics retainedHeapMb;
+    private boolean measuring;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Path classpath = layout == Layout.JAR
+                ? SyntheticClasspath.jarWith(arrangers, fillerClasses)
+                : SyntheticClasspath.directoryWith(arrangers, fillerClasses);
+        command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Darranger.root=" + SyntheticClasspath.PACKAGE);
+        if (scanCache) {
+            Path cacheFile = Paths.get("target", "synthetic-classpath", "scan-cache");
+            Files.deleteIfExists(cacheFile);
+            command.add("-Darranger.scanCache.file=" + cacheFile.toAbsolutePath());
+        }
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path") + File.pathSeparator + classpath.toAbsolutePath());
+        command.add(StartupProbe.class.getName());
+        command.add(SyntheticClasspath.FIRST_ENTITY);
+        timeToFirstSomeMs = new DoubleSummaryStatistics();
+        retainedHeapMb = new DoubleSummaryStatistics();
+    }
+
+    @Setup(Level.Iteration)
+    public void startIteration(IterationParams iteration) {
+        measuring = iteration.getType() == IterationType.MEASUREMENT;
+    }
+
+    @TearDown(Level.Trial)
+    public void report() {
+        System.out.println();
+        System.out.printf("arrangers=%d, fillerClasses=%d, layout=%s, scanCache=%b, forks=%d%n",
+                arrangers, fillerClasses, layout, scanCache, timeToFirstSomeMs.getCount());
+        System.out.printf("  time to first some(): mean %.1f ms, min %.1f ms, max %.1f ms%n",
+                timeToFirstSomeMs.getAverage(), timeToFirstSomeMs.getMin(), timeToFirstSomeMs.getMax());
+        System.out.printf("  retained heap:        mean %.1f MB, min %.1f MB, max %.1f MB%n",
+                retainedHeapMb.getAverage(), retainedHeapMb.getMin(), retainedHeapMb.getMax());
+    }
+
+    @Benchmark
+    public void firstSomeInFreshJvm() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .redirectError(ProcessBuilder.Redirect.INHERIT)
+                .start();
+        try (BufferedReader output = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = output.readLine()) != null) {
+                if (!measuring) {
+                    continue;
+                }
+                if (line.startsWith(StartupProbe.TIME_TO_FIRST_SOME)) {
+                    timeToFirstSomeMs.accept(Long.parseLong(line.substring(StartupProbe.TIME_TO_FIRST_SOME.length())) / 1_000_000.0);
+                } else if (line.startsWith(StartupProbe.RETAINED_HEAP)) {
+                    retainedHeapMb.accept(Long.parseLong(line.substring(StartupProbe.RETAINED_HEAP.length())) / (1024.0 * 1024.0));
+                }
+            }
+        }
+        if (process.waitFor() != 0) {
+            throw new IllegalStateException("Startup probe failed with exit code " + process.exitValue());
+        }
+    }
+}
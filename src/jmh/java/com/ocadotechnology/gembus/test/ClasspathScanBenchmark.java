@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ScanResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of finding the custom arrangers in a synthetic jar with 50k classes in the scanned package,
+ * comparing the class-info-only scan used by {@link ReflectionHelper} with the former {@code enableAllInfo()} scan.
+ * Only the synthetic jar is scanned, so the score does not depend on the rest of the classpath.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ClasspathScanBenchmark {
+
+    public enum ScanInfo {
+        CLASS_INFO,
+        ALL_INFO
+    }
+
+    @Param
+    public ScanInfo scanInfo;
+
+    @Param({"1", "4"})
+    public int workerThreads;
+
+    private Path jar;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        jar = SyntheticClasspath.jarWith(100, 50_000);
+    }
+
+    @Benchmark
+    public List<String> findCustomArrangers() {
+        ClassGraph classGraph = ReflectionHelper.customArrangersScan(SyntheticClasspath.PACKAGE)
+                .overrideClasspath(jar.toAbsolutePath().toString());
+        if (scanInfo == ScanInfo.ALL_INFO) {
+            classGraph.enableAllInfo();
+        }
+        try (ScanResult scanResult = classGraph.scan(workerThreads)) {
+            return scanResult.getSubclasses(CustomArranger.class.getName()).getNames();
+        }
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.yaml.snakeyaml.Yaml;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.OptionalDouble;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Runs the selected benchmarks with the GC profiler and compares ops/s and B/op against the committed baseline.
+ * Exits with a non-zero status, failing the build, when any benchmark regressed by more than the configured threshold
+ * or when a benchmark from the baseline is missing from the results (e.g. it failed or was renamed).
+ * <ul>
+ *   <li>{@code gate.baseline} - path of the baseline JSON file</li>
+ *   <li>{@code gate.throughputThreshold} - tolerated relative drop of ops/s, e.g. 0.5 for 50%;
+ *   when empty, ops/s is only reported</li>
+ *   <li>{@code gate.allocationThreshold} - tolerated relative growth of B/op</li>
+ *   <li>{@code gate.update} - when true, the baseline is overwritten with the current results instead of being checked</li>
+ * </ul>
+ * The throughput baseline is only meaningful on the hardware it was recorded on, and even there a short run varies a lot
+ * between forks, B/op is much more stable and portable.
+ */
+public class RegressionGate {
+
+    static final String OPS_PER_SECOND = "opsPerSecond";
+    static final String BYTES_PER_OP = "bytesPerOp";
+    private static final String ALLOCATION_METRIC = "gc.alloc.rate.norm";
+    /* B/op measured by the GC profiler jitters by a few bytes even for stable code. */
+    private static final double ALLOCATION_NOISE_BYTES = 64;
+
+    public static void main(String[] args) throws Exception {
+        Path baselineFile = Paths.get(System.getProperty("gate.baseline"));
+        String throughputThresholdProperty = System.getProperty("gate.throughputThreshold", "").trim();
+        OptionalDouble throughputThreshold = throughputThresholdProperty.isEmpty()
+                ? OptionalDouble.empty()
+                : OptionalDouble.of(Double.parseDouble(throughputThresholdProperty));
+        double allocationThreshold = Double.parseDouble(System.getProperty("gate.allocationThreshold", "0.1"));
+        boolean update = Boolean.parseBoolean(System.getProperty("gate.update", "false"));
+
+        Collection<RunResult> results = new Runner(new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .build())
+                .run();
+        Map<String, Map<String, Double>> current = toMeasurements(results);
+
+        if (update) {
+            Files.writeString(baselineFile, toJson(current), StandardCharsets.UTF_8);
+            System.out.println("Baseline updated: " + baselineFile);
+            return;
+        }
+        List<String> regressions = compare(readBaseline(baselineFile), current, throughputThreshold, allocationThreshold);
+        if (!regressions.isEmpty()) {
+            System.err.println();
+            System.err.println("Performance regressions against " + baselineFile + ":");
+            regressions.forEach(regression -> System.err.println("  " + regression));
+            System.exit(1);
+        }
+        System.out.println("No performance regressions against " + baselineFile);
+    }
+
+    static Map<String, Map<String, Double>> toMeasurements(Collection<RunResult> results) {
+        Map<String, Map<String, Double>> measurements = new TreeMap<>();
+        for (RunResult result : results) {
+            Map<String, Double> measurement = new TreeMap<>();
+            measurement.put(OPS_PER_SECOND, result.getPrimaryResult().getScore());
+            Result allocation = result.getSecondaryResults().get(ALLOCATION_METRIC);
+            if (allocation != null) {
+                measurement.put(BYTES_PER_OP, allocation.getScore());
+            }
+            measurements.put(key(result.getParams()), measurement);
+        }
+        return measurements;
+    }
+
+    static List<String> compare(Map<String, Map<String, Double>> baseline, Map<String, Map<String, Double>> current,
+                                OptionalDouble throughputThreshold, double allocationThreshold) {
+        List<String> regressions = new ArrayList<>();
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-100s %14s %14s %14s %14s%n", "Benchmark", "ops/s", "baseline", "B/op", "baseline");
+        current.forEach((benchmark, measurement) -> {
+            Map<String, Double> expected = baseline.get(benchmark);
+            if (expected == null) {
+                System.out.printf(Locale.ROOT, "%-100s %14.1f %14s %14.1f %14s%n", benchmark,
+                        measurement.get(OPS_PER_SECOND), "-", measurement.getOrDefault(BYTES_PER_OP, Double.NaN), "-");
+                return;
+            }
+            double opsPerSecond = measurement.get(OPS_PER_SECOND);
+            double expectedOpsPerSecond = expected.get(OPS_PER_SECOND);
+            System.out.printf(Locale.ROOT, "%-100s %14.1f %14.1f %14.1f %14.1f%n", benchmark, opsPerSecond, expectedOpsPerSecond,
+                    measurement.getOrDefault(BYTES_PER_OP, Double.NaN), expected.getOrDefault(BYTES_PER_OP, Double.NaN));
+            if (throughputThreshold.isPresent() && opsPerSecond < expectedOpsPerSecond * (1 - throughputThreshold.getAsDouble())) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.1f ops/s is more than %.0f%% below the baseline %.1f ops/s",
+                        benchmark, opsPerSecond, throughputThreshold.getAsDouble() * 100, expectedOpsPerSecond));
+            }
+            Double bytesPerOp = measurement.get(BYTES_PER_OP);
+            Double expectedBytesPerOp = expected.get(BYTES_PER_OP);
+            if (bytesPerOp != null && expectedBytesPerOp != null
+                    && bytesPerOp > expectedBytesPerOp * (1 + allocationThreshold) + ALLOCATION_NOISE_BYTES) {
+                regressions.add(String.format(Locale.ROOT, "%s: %.1f B/op is more than %.0f%% above the baseline %.1f B/op",
+                        benchmark, bytesPerOp, allocationThreshold * 100, expectedBytesPerOp));
+            }
+        });
+        baseline.keySet().stream()
+                .filter(benchmark -> !current.containsKey(benchmark))
+                .forEach(benchmark -> regressions.add(benchmark + ": missing from the results, "
+                        + "fix it or remove it from the baseline with -Djmh.gate.update=true"));
+        return regressions;
+    }
+
+    private static String key(BenchmarkParams params) {
+        String parameters = params.getParamsKeys().stream()
+                .map(name -> name + "=" + params.getParam(name))
+                .collect(Collectors.joining(","));
+        return parameters.isEmpty() ? params.getBenchmark() : params.getBenchmark() + ":" + parameters;
+    }
+
+    private static Map<String, Map<String, Double>> readBaseline(Path baselineFile) throws IOException {
+        if (!Files.exists(baselineFile)) {
+            throw new IllegalStateException("There is no baseline in " + baselineFile + ", create one with -Djmh.gate.update=true");
+        }
+        try (Reader reader = Files.newBufferedReader(baselineFile, StandardCharsets.UTF_8)) {
+            Map<String, Map<String, Number>> json = new Yaml().load(reader);
+            Map<String, Map<String, Double>> baseline = new TreeMap<>();
+            json.forEach((benchmark, values) -> baseline.put(benchmark, values.entrySet().stream()
+                    .collect(Collectors.toMap(Map.Entry::getKey, entry -> entry.getValue().doubleValue()))));
+            return baseline;
+        }
+    }
+
+    private static String toJson(Map<String, Map<String, Double>> measurements) {
+        return measurements.entrySet().stream()
+                .map(benchmark -> "  \"" + benchmark.getKey() + "\": {" + benchmark.getValue().entrySet().stream()
+                        .map(value -> String.format(Locale.ROOT, "\"%s\": %.1f", value.getKey(), value.getValue()))
+                        .collect(Collectors.joining(", ")) + "}")
+                .collect(Collectors.joining(",\n", "{\n", "\n}\n"));
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import com.ocadotechnology.gembus.test.rearranger.Rearranger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * The operations guarded by {@link RegressionGate}: the engine underneath every {@code Arranger.some()},
+ * the copy behind every {@code some(type, overrides)} for records and the Markov chain text generation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RegressionGateBenchmark {
+
+    private EnhancedRandom enhancedRandom;
+    private FlatRecord recordToCopy;
+    private FlatPojo pojoToCopy;
+    private Map<String, Supplier<?>> overrides;
+    private MarkovStringRandomizer markovStringRandomizer;
+
+    @Setup
+    public void setUp() {
+        enhancedRandom = new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomDefaultParameters).build(new HashMap<>(), 1L);
+        recordToCopy = Arranger.some(FlatRecord.class);
+        pojoToCopy = Arranger.some(FlatPojo.class);
+        overrides = Map.of("name", () -> "overridden");
+        markovStringRandomizer = new MarkovStringRandomizer(ArrangersConfigurer.STRING_MIN_LENGTH, ArrangersConfigurer.STRING_MAX_LENGTH);
+    }
+
+    @Benchmark
+    public Object enhancedRandomNextObject() {
+        return enhancedRandom.nextObject(FlatPojo.class);
+    }
+
+    @Benchmark
+    public Object enhancedRandomNextObjectWithExclusion() {
+        return enhancedRandom.nextObject(FlatPojo.class, "name");
+    }
+
+    @Benchmark
+    public Object rearrangerCopyRecord() {
+        return Rearranger.copy(recordToCopy, overrides);
+    }
+
+    @Benchmark
+    public Object rearrangerCopyPojo() {
+        return Rearranger.copy(pojoToCopy, overrides);
+    }
+
+    @Benchmark
+    public String markovStringRandomizer() {
+        return markovStringRandomizer.getRandomValue();
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalDouble;
+
+import static com.ocadotechnology.gembus.test.RegressionGate.BYTES_PER_OP;
+import static com.ocadotechnology.gembus.test.RegressionGate.OPS_PER_SECOND;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegressionGateTest {
+
+    private static final OptionalDouble THROUGHPUT_THRESHOLD = OptionalDouble.of(0.2);
+    private static final double ALLOCATION_THRESHOLD = 0.1;
+
+    @Test
+    void shouldPass_whenMeasurementsAreWithinThresholds() {
+        //given
+        Map<String, Map<String, Double>> baseline = Map.of("stable", measurement(1000, 10_000));
+        Map<String, Map<String, Double>> current = Map.of("stable", measurement(850, 10_900));
+
+        //when
+        List<String> actual = RegressionGate.compare(baseline, current, THROUGHPUT_THRESHOLD, ALLOCATION_THRESHOLD);
+
+        //then
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void shouldPass_whenBenchmarkIsNotInBaseline() {
+        //given
+        Map<String, Map<String, Double>> baseline = Map.of("stable", measurement(1000, 10_000));
+        Map<String, Map<String, Double>> current = Map.of("stable", measurement(1000, 10_000), "new", measurement(1, 1_000_000));
+
+        //when
+        List<String> actual = RegressionGate.compare(baseline, current, THROUGHPUT_THRESHOLD, ALLOCATION_THRESHOLD);
+
+        //then
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void shouldFail_whenBenchmarkFromBaselineIsMissing() {
+        //given
+        Map<String, Map<String, Double>> baseline = Map.of("stable", measurement(1000, 10_000), "removed", measurement(1000, 10_000));
+        Map<String, Map<String, Double>> current = Map.of("stable", measurement(1000, 10_000));
+
+        //when
+        List<String> actual = RegressionGate.compare(baseline, current, THROUGHPUT_THRESHOLD, ALLOCATION_THRESHOLD);
+
+        //then
+        assertThat(actual).singleElement().asString().startsWith("removed: missing from the results");
+    }
+
+    @Test
+    void shouldFail_whenThroughputOrAllocationRegressed() {
+        //given
+        Map<String, Map<String, Double>> baseline = Map.of("slower", measurement(1000, 10_000), "allocating", measurement(1000, 10_000));
+        Map<String, Map<String, Double>> current = Map.of("slower", measurement(700, 10_000), "allocating", measurement(1000, 12_000));
+
+        //when
+        List<String> actual = RegressionGate.compare(baseline, current, THROUGHPUT_THRESHOLD, ALLOCATION_THRESHOLD);
+
+        //then
+        assertThat(actual).hasSize(2);
+        assertThat(actual).anySatisfy(regression -> assertThat(regression).startsWith("slower:").contains("ops/s"));
+        assertThat(actual).anySatisfy(regression -> assertThat(regression).startsWith("allocating:").contains("B/op"));
+    }
+
+    @Test
+    void shouldOnlyReportThroughput_whenThroughputIsNotGated() {
+        //given
+        Map<String, Map<String, Double>> baseline = Map.of("slower", measurement(1000, 10_000));
+        Map<String, Map<String, Double>> current = Map.of("slower", measurement(100, 10_000));
+
+        //when
+        List<String> actual = RegressionGate.compare(baseline, current, OptionalDouble.empty(), ALLOCATION_THRESHOLD);
+
+        //then
+        assertThat(actual).isEmpty();
+    }
+
+    private static Map<String, Double> measurement(double opsPerSecond, double bytesPerOp) {
+        return Map.of(OPS_PER_SECOND, opsPerSecond, BYTES_PER_OP, bytesPerOp);
+    }
+}
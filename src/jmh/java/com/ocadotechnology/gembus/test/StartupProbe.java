@@ -0,0 +1,46 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+
+/**
+ * Entry point of the JVM forked by {@link ArrangerStartupBenchmark}.
+ * Arranges an instance of the class given as the first argument and prints the startup metrics to the standard output.
+ * Nothing may touch {@link Arranger} before the measurement starts.
+ */
+class StartupProbe {
+
+    static final String TIME_TO_FIRST_SOME = "timeToFirstSomeNanos=";
+    static final String RETAINED_HEAP = "retainedHeapBytes=";
+
+    public static void main(String[] args) throws Exception {
+        Class<?> type = Class.forName(args[0]);
+
+        long start = System.nanoTime();
+        Object arranged = Arranger.some(type);
+        long timeToFirstSome = System.nanoTime() - start;
+
+        System.gc();
+        System.gc();
+        long retainedHeap = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+        Reference.reachabilityFence(arranged);
+
+        System.out.println(TIME_TO_FIRST_SOME + timeToFirstSome);
+        System.out.println(RETAINED_HEAP + retainedHeap);
+    }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Generates and compiles a jar or a classes directory with synthetic {@link CustomArranger} subclasses and filler classes,
+ * to measure how the Arranger bootstrap scales with the number of arrangers and the size of the scanned package.
+ * Both are cached in {@code target/synthetic-classpath} as generating thousands of classes takes a while.
+ */
+class SyntheticClasspath {
+
+    static final String PACKAGE = "com.ocadotechnology.gembus.synthetic";
+    static final String FIRST_ENTITY = PACKAGE + ".Entity0";
+    private static final Path OUTPUT = Paths.get("target", "synthetic-classpath");
+
+    static Path jarWith(int arrangers, int fillerClasses) {
+        Path jar = OUTPUT.resolve(name(arrangers, fillerClasses) + ".jar");
+        if (Files.exists(jar)) {
+            return jar;
+        }
+        try {
+            writeJar(directoryWith(arrangers, fillerClasses), jar);
+            return jar;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static Path directoryWith(int arrangers, int fillerClasses) {
+        Path classes = OUTPUT.resolve(name(arrangers, fillerClasses));
+        if (Files.isDirectory(classes)) {
+            return classes;
+        }
+        try {
+            Files.createDirectories(OUTPUT);
+            Path workDir = Files.createTempDirectory(OUTPUT, "synthetic-classpath");
+            compile(writeSources(workDir.resolve("src"), arrangers, fillerClasses), workDir.resolve("classes"));
+            Files.move(workDir.resolve("classes"), classes);
+            deleteRecursively(workDir);
+            return classes;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String name(int arrangers, int fillerClasses) {
+        return "arrangers-" + arrangers + "-fillers-" + fillerClasses;
+    }
+
+    private static List<Path> writeSources(Path sources, int arrangers, int fillerClasses) throws IOException {
+        Path packageDir = sources.resolve(PACKAGE.replace('.', '/'));
+        Files.createDirectories(packageDir);
+        List<Path> files = new ArrayList<>();
+        for (int i = 0; i < Math.max(arrangers, 1); i++) {
+            files.add(write(packageDir, "Entity" + i, "public class Entity" + i + " {\n"
+                    + "    public String name;\n"
+                    + "    public Long id;\n"
+                    + "    public java.util.List<String> tags;\n"
+                    + "}\n"));
+        }
+        for (int i = 0; i < arrangers; i++) {
+            files.add(write(packageDir, "Entity" + i + "Arranger", "public class Entity" + i + "Arranger extends "
+                    + CustomArranger.class.getName() + "<Entity" + i + "> {\n"
+                    + "    @Override\n"
+                    + "    protected Entity" + i + " instance() {\n"
+                    + "        return enhancedRandom.nextObject(Entity" + i + ".class);\n"
+                    + "    }\n"
+                    + "}\n"));
+        }
+        for (int i = 0; i < fillerClasses; i++) {
+            files.add(write(packageDir, "Filler" + i, "public class Filler" + i + " {\n"
+                    + "    private String text;\n"
+                    + "    private int number;\n"
+                    + "    @Deprecated\n"
+                    + "    public String describe() {\n"
+                    + "        return text + number;\n"
+                    + "    }\n"
+                    + "}\n"));
+        }
+        return files;
+    }
+
+    private static Path write(Path packageDir, String className, String body) throws IOException {
+        Path file = packageDir.resolve(className + ".java");
+        Files.writeString(file, "package " + PACKAGE + ";\n\n" + body, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static void compile(List<Path> files, Path classes) throws IOException {
+        Files.createDirectories(classes);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, StandardCharsets.UTF_8)) {
+            Iterable<? extends JavaFileObject> units = fileManager.getJavaFileObjectsFromPaths(files);
+            List<String> options = List.of(
+                    "-classpath", System.getProperty("java.class.path"),
+                    "-d", classes.toString(),
+                    "-proc:none",
+                    "-nowarn");
+            if (!compiler.getTask(null, fileManager, null, options, null, units).call()) {
+                throw new IllegalStateException("Compilation of the synthetic classpath failed");
+            }
+        }
+    }
+
+    private static void writeJar(Path classes, Path jar) throws IOException {
+        try (OutputStream out = Files.newOutputStream(jar);
+             JarOutputStream jarOut = new JarOutputStream(out);
+             Stream<Path> files = Files.walk(classes)) {
+            for (Path file : (Iterable<Path>) files.filter(Files::isRegularFile)::iterator) {
+                jarOut.putNextEntry(new JarEntry(classes.relativize(file).toString().replace('\\', '/')));
+                Files.copy(file, jarOut);
+                jarOut.closeEntry();
+            }
+        }
+    }
+
+    private static void deleteRecursively(Path dir) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            for (Path file : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(file);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the selected benchmarks with 1, 2, 4, ... threads up to the number of cores (or {@code -t}) and prints
+ * how the throughput scales, e.g.
+ * {@code mvn -P benchmark verify -Djmh.main=com.ocadotechnology.gembus.test.ThreadScalingRunner -Djmh.benchmarks=ArrangerContentionBenchmark}
+ */
+public class ThreadScalingRunner {
+
+    public static void main(String[] args) throws CommandLineOptionException, RunnerException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        int maxThreads = commandLine.getThreads().orElse(Runtime.getRuntime().availableProcessors());
+
+        List<RunResult> results = new ArrayList<>();
+        for (int threads : threadCounts(maxThreads)) {
+            results.addAll(new Runner(new OptionsBuilder().parent(commandLine).threads(threads).build()).run());
+        }
+        printScaling(results);
+    }
+
+    static List<Integer> threadCounts(int maxThreads) {
+        List<Integer> result = new ArrayList<>();
+        for (int threads = 1; threads < maxThreads; threads *= 2) {
+            result.add(threads);
+        }
+        result.add(maxThreads);
+        return result;
+    }
+
+    private static void printScaling(List<RunResult> results) {
+        results.sort(Comparator.<RunResult, String>comparing(result -> result.getParams().getBenchmark())
+                .thenComparing(result -> result.getParams().getThreads()));
+        Map<String, Double> singleThreadScores = new HashMap<>();
+        System.out.println();
+        System.out.printf("%-70s %8s %16s %16s %8s%n", "Benchmark", "Threads", "ops/s", "ops/s/thread", "Speedup");
+        for (RunResult result : results) {
+            String benchmark = result.getParams().getBenchmark();
+            int threads = result.getParams().getThreads();
+            double score = result.getPrimaryResult().getScore();
+            if (threads == 1) {
+                singleThreadScores.put(benchmark, score);
+            }
+            Double singleThreadScore = singleThreadScores.get(benchmark);
+            System.out.printf("%-70s %8d %16.1f %16.1f %8s%n", benchmark, threads, score, score / threads,
+                    singleThreadScore == null ? "-" : String.format("%.2fx", score / singleThreadScore));
+        }
+    }
+}
@@ -0,0 +1,243 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test.rearranger;
+
+import com.ocadotechnology.gembus.test.Arranger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throughput of the reflective copy paths behind {@link Rearranger#copy(Object, Map)}:
+ * {@link ObjectRearranger} for POJOs and {@link RecordRearranger} for records.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RearrangerBenchmark {
+
+    public enum Shape {
+        POJO(NarrowPojo.class),
+        RECORD(NarrowRecord.class),
+        WIDE_POJO(WidePojo.class),
+        WIDE_RECORD(WideRecord.class);
+
+        final Class<?> type;
+
+        Shape(Class<?> type) {
+            this.type = type;
+        }
+    }
+
+    @Param
+    public Shape shape;
+
+    @Param({"0", "1", "10"})
+    public int overridesCount;
+
+    private Object original;
+    private Map<String, Supplier<?>> overrides;
+
+    @Setup
+    public void setUp() {
+        original = Arranger.some(shape.type);
+        overrides = overridesFor(shape.type, overridesCount);
+    }
+
+    @Benchmark
+    public Object copy() {
+        return Rearranger.copy(original, overrides);
+    }
+
+    /** Overrides the first {@code count} fields with values generated upfront, so the suppliers are cheap. */
+    static Map<String, Supplier<?>> overridesFor(Class<?> type, int count) {
+        Map<String, Supplier<?>> result = new HashMap<>();
+        Arrays.stream(type.getDeclaredFields())
+                .filter(field -> !Modifier.isStatic(field.getModifiers()) && !field.isSynthetic())
+                .limit(count)
+                .forEach(field -> {
+                    Object value = Arranger.some(field.getType());
+                    result.put(field.getName(), () -> value);
+                });
+        if (result.size() != count) {
+            throw new IllegalArgumentException(type.getName() + " has less than " + count + " fields");
+        }
+        return result;
+    }
+}
+
+class NarrowPojo {
+    String name;
+    String description;
+    Long id;
+    Integer quantity;
+    Double weight;
+    Boolean active;
+    BigDecimal price;
+    LocalDate created;
+    String category;
+    String brand;
+}
+
+record NarrowRecord(String name, String description, Long id, Integer quantity, Double weight, Boolean active,
+                    BigDecimal price, LocalDate created, String category, String brand) {
+}
+
+class WidePojo {
+    String field00;
+    Integer field01;
+    Long field02;
+    Boolean field03;
+    Double field04;
+    String field05;
+    Integer field06;
+    Long field07;
+    Boolean field08;
+    Double field09;
+    String field10;
+    Integer field11;
+    Long field12;
+    Boolean field13;
+    Double field14;
+    String field15;
+    Integer field16;
+    Long field17;
+    Boolean field18;
+    Double field19;
+    String field20;
+    Integer field21;
+    Long field22;
+    Boolean field23;
+    Double field24;
+    String field25;
+    Integer field26;
+    Long field27;
+    Boolean field28;
+    Double field29;
+    String field30;
+    Integer field31;
+    Long field32;
+    Boolean field33;
+    Double field34;
+    String field35;
+    Integer field36;
+    Long field37;
+    Boolean field38;
+    Double field39;
+    String field40;
+    Integer field41;
+    Long field42;
+    Boolean field43;
+    Double field44;
+    String field45;
+    Integer field46;
+    Long field47;
+    Boolean field48;
+    Double field49;
+    String field50;
+    Integer field51;
+    Long field52;
+    Boolean field53;
+    Double field54;
+    String field55;
+    Integer field56;
+    Long field57;
+    Boolean field58;
+    Double field59;
+}
+
+record WideRecord(String field00,
+                  Integer field01,
+                  Long field02,
+                  Boolean field03,
+                  Double field04,
+                  String field05,
+                  Integer field06,
+                  Long field07,
+                  Boolean field08,
+                  Double field09,
+                  String field10,
+                  Integer field11,
+                  Long field12,
+                  Boolean field13,
+                  Double field14,
+                  String field15,
+                  Integer field16,
+                  Long field17,
+                  Boolean field18,
+                  Double field19,
+                  String field20,
+                  Integer field21,
+                  Long field22,
+                  Boolean field23,
+                  Double field24,
+                  String field25,
+                  Integer field26,
+                  Long field27,
+                  Boolean field28,
+                  Double field29,
+                  String field30,
+                  Integer field31,
+                  Long field32,
+                  Boolean field33,
+                  Double field34,
+                  String field35,
+                  Integer field36,
+                  Long field37,
+                  Boolean field38,
+                  Double field39,
+                  String field40,
+                  Integer field41,
+                  Long field42,
+                  Boolean field43,
+                  Double field44,
+                  String field45,
+                  Integer field46,
+                  Long field47,
+                  Boolean field48,
+                  Double field49,
+                  String field50,
+                  Integer field51,
+                  Long field52,
+                  Boolean field53,
+                  Double field54,
+                  String field55,
+                  Integer field56,
+                  Long field57,
+                  Boolean field58,
+                  Double field59) {
+}
@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test.rearrangerkt;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Throughput of the Kotlin {@link Rearranger} copy with property references,
+ * through the matching constructor (data classes) and through Objenesis (plain classes).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RearrangerKotlinBenchmark {
+
+    @Param({"DATA_CLASS", "PLAIN_CLASS", "WIDE_DATA_CLASS"})
+    public String shape;
+
+    @Param({"0", "1", "10"})
+    public int overridesCount;
+
+    private Object original;
+    private UnaryOperator<Object> copier;
+
+    @Setup
+    public void setUp() {
+        original = RearrangerKotlinBenchmarkFixtures.original(shape);
+        copier = RearrangerKotlinBenchmarkFixtures.copier(shape, overridesCount);
+    }
+
+    @Benchmark
+    public Object copy() {
+        return copier.apply(original);
+    }
+}
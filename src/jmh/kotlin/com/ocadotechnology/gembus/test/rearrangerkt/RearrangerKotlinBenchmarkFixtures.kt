@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test.rearrangerkt
+
+import com.ocadotechnology.gembus.test.some
+import java.math.BigDecimal
+import java.time.LocalDate
+import java.util.function.UnaryOperator
+
+/**
+ * Copy operations measured by RearrangerKotlinBenchmark.
+ * Property references can only be written in Kotlin, so the benchmark (Java, processed by the JMH annotation processor) calls into this object.
+ */
+object RearrangerKotlinBenchmarkFixtures {
+
+    @JvmStatic
+    fun original(shape: String): Any = when (shape) {
+        "DATA_CLASS" -> some<NarrowDataClass>()
+        "PLAIN_CLASS" -> some<NarrowPlainClass>()
+        "WIDE_DATA_CLASS" -> some<WideDataClass>()
+        else -> throw IllegalArgumentException("Unknown shape $shape")
+    }
+
+    @JvmStatic
+    fun copier(shape: String, overridesCount: Int): UnaryOperator<Any> = when (shape to overridesCount) {
+        "DATA_CLASS" to 0 -> UnaryOperator { Rearranger.copy(it as NarrowDataClass) {} }
+        "DATA_CLASS" to 1 -> UnaryOperator {
+            Rearranger.copy(it as NarrowDataClass) {
+                NarrowDataClass::name set "overridden"
+            }
+        }
+        "DATA_CLASS" to 10 -> UnaryOperator {
+            Rearranger.copy(it as NarrowDataClass) {
+                NarrowDataClass::name set "overridden"
+                NarrowDataClass::description set "overridden"
+                NarrowDataClass::id set 42L
+                NarrowDataClass::quantity set 42
+                NarrowDataClass::weight set 4.2
+                NarrowDataClass::active set true
+                NarrowDataClass::price set BigDecimal.TEN
+                NarrowDataClass::created set LocalDate.EPOCH
+                NarrowDataClass::category set "overridden"
+                NarrowDataClass::brand set "overridden"
+            }
+        }
+        "PLAIN_CLASS" to 0 -> UnaryOperator { Rearranger.copy(it as NarrowPlainClass) {} }
+        "PLAIN_CLASS" to 1 -> UnaryOperator {
+            Rearranger.copy(it as NarrowPlainClass) {
+                NarrowPlainClass::name set "overridden"
+            }
+        }
+        "PLAIN_CLASS" to 10 -> UnaryOperator {
+            Rearranger.copy(it as NarrowPlainClass) {
+                NarrowPlainClass::name set "overridden"
+                NarrowPlainClass::description set "overridden"
+                NarrowPlainClass::id set 42L
+                NarrowPlainClass::quantity set 42
+                NarrowPlainClass::weight set 4.2
+                NarrowPlainClass::active set true
+                NarrowPlainClass::price set BigDecimal.TEN
+                NarrowPlainClass::created set LocalDate.EPOCH
+                NarrowPlainClass::category set "overridden"
+                NarrowPlainClass::brand set "overridden"
+            }
+        }
+        "WIDE_DATA_CLASS" to 0 -> UnaryOperator { Rearranger.copy(it as WideDataClass) {} }
+        "WIDE_DATA_CLASS" to 1 -> UnaryOperator {
+            Rearranger.copy(it as WideDataClass) {
+                WideDataClass::field00 set "overridden"
+            }
+        }
+        "WIDE_DATA_CLASS" to 10 -> UnaryOperator {
+            Rearranger.copy(it as WideDataClass) {
+                WideDataClass::field00 set "overridden"
+                WideDataClass::field01 set 42
+                WideDataClass::field02 set 42L
+                WideDataClass::field03 set true
+                WideDataClass::field04 set 4.2
+                WideDataClass::field05 set "overridden"
+                WideDataClass::field06 set 42
+                WideDataClass::field07 set 42L
+                WideDataClass::field08 set true
+                WideDataClass::field09 set 4.2
+            }
+        }
+        else -> throw IllegalArgumentException("Unsupported combination: $shape with $overridesCount overrides")
+    }
+}
+
+data class NarrowDataClass(
+    val name: String,
+    val description: String,
+    val id: Long,
+    val quantity: Int,
+    val weight: Double,
+    val active: Boolean,
+    val price: BigDecimal,
+    val created: LocalDate,
+    val category: String,
+    val brand: String
+)
+
+/** No constructor matches the properties, so the copy goes through Objenesis and property setters. */
+class NarrowPlainClass {
+    var name: String = ""
+    var description: String = ""
+    var id: Long = 0
+    var quantity: Int = 0
+    var weight: Double = 0.0
+    var active: Boolean = false
+    var price: BigDecimal = BigDecimal.ZERO
+    var created: LocalDate = LocalDate.EPOCH
+    var category: String = ""
+    var brand: String = ""
+}
+
+data class WideDataClass(
+    val field00: String,
+    val field01: Int,
+    val field02: Long,
+    val field03: Boolean,
+    val field04: Double,
+    val field05: String,
+    val field06: Int,
+    val field07: Long,
+    val field08: Boolean,
+    val field09: Double,
+    val field10: String,
+    val field11: Int,
+    val field12: Long,
+    val field13: Boolean,
+    val field14: Double,
+    val field15: String,
+    val field16: Int,
+    val field17: Long,
+    val field18: Boolean,
+    val field19: Double,
+    val field20: String,
+    val field21: Int,
+    val field22: Long,
+    val field23: Boolean,
+    val field24: Double,
+    val field25: String,
+    val field26: Int,
+    val field27: Long,
+    val field28: Boolean,
+    val field29: Double,
+    val field30: String,
+    val field31: Int,
+    val field32: Long,
+    val field33: Boolean,
+    val field34: Double,
+    val field35: String,
+    val field36: Int,
+    val field37: Long,
+    val field38: Boolean,
+    val field39: Double,
+    val field40: String,
+    val field41: Int,
+    val field42: Long,
+    val field43: Boolean,
+    val field44: Double,
+    val field45: String,
+    val field46: Int,
+    val field47: Long,
+    val field48: Boolean,
+    val field49: Double,
+    val field50: String,
+    val field51: Int,
+    val field52: Long,
+    val field53: Boolean,
+    val field54: Double,
+    val field55: String,
+    val field56: Int,
+    val field57: Long,
+    val field58: Boolean,
+    val field59: Double
+)
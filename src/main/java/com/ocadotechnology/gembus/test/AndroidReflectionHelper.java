@@ -15,13 +15,39 @@
  */
 package com.ocadotechnology.gembus.test;
 
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 
 public class AndroidReflectionHelper {
+
+    /**
+     * The arrangers created by the root {@link CustomArrangerProvider} generated by {@link CustomArrangerIndexProcessor}
+     * for the given root package, empty when the provider was not generated.
+     */
+    static Map<Class<?>, Supplier<CustomArranger<?>>> findGeneratedCustomArrangers(ClassLoader classLoader, String rootPackage) {
+        return loadGeneratedProvider(classLoader, CustomArrangerIndexProcessor.rootProvider(rootPackage))
+                .map(CustomArrangerProvider::customArrangers)
+                .orElse(Map.of());
+    }
+
+    private static Optional<CustomArrangerProvider> loadGeneratedProvider(ClassLoader classLoader, String providerName) {
+        try {
+            Class<?> provider = Class.forName(providerName, true, classLoader);
+            return Optional.of((CustomArrangerProvider) provider.getDeclaredConstructor().newInstance());
+        } catch (ClassNotFoundException e) {
+            return Optional.empty();
+        } catch (ReflectiveOperationException | LinkageError | ClassCastException e) {
+            System.err.println("Cannot create " + providerName + ", only the arrangers from arranger.android.customArrangers will be used: " + e);
+            return Optional.empty();
+        }
+    }
+
     static Stream<Class<CustomArranger>> findCustomArrangerClasses() {
         final ClassLoader classLoader = AndroidReflectionHelper.class.getClassLoader();
-        return PropertiesWrapper.getAndroidCustomArrangers().stream()
+        return ArrangerSettings.current().getAndroidCustomArrangers().stream()
                 .map(className -> {
                     Class<CustomArranger> result = null;
                     try {
@@ -26,6 +26,8 @@ import java.math.RoundingMode;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
@@ -34,19 +36,75 @@ import java.util.stream.Stream;
  * To arrange test data using pseudo random values.
  */
 public class Arranger {
-    static EnhancedRandom random = ArrangersConfigurer.instance().defaultRandom();
-    private static EnhancedRandom simplifiedRandom = ArrangersConfigurer.instance().simplifiedRandom();
-    private static final EmailRandomizer emailRandomizer = new EmailRandomizer();
-    private static final MarkovStringRandomizer stringRandomizer = new MarkovStringRandomizer(ArrangersConfigurer.STRING_MIN_LENGTH, ArrangersConfigurer.STRING_MAX_LENGTH);
-    private static final FirstNameRandomizer firstNameRandomizer = new FirstNameRandomizer();
-    private static final LastNameRandomizer lastNameRandomizer = new LastNameRandomizer();
+    private static final AtomicReference<CompletableFuture<Void>> warmUp = new AtomicReference<>();
+
+    /**
+     * The engines are kept apart from the Arranger class, so that {@link #warmUpAsync()} can initialize them in another thread.
+     */
+    private static class Engines {
+        private static final long initializationStart = System.nanoTime();
+        static final EnhancedRandom random = ArrangersConfigurer.instance().defaultRandom();
+        static final EmailRandomizer emailRandomizer = BootstrapTimings.time(BootstrapTimings.Phase.FAKER_RANDOMIZERS_INIT, EmailRandomizer::new);
+        static final MarkovStringRandomizer stringRandomizer = new MarkovStringRandomizer(ArrangersConfigurer.STRING_MIN_LENGTH, ArrangersConfigurer.STRING_MAX_LENGTH);
+        static final FirstNameRandomizer firstNameRandomizer = BootstrapTimings.time(BootstrapTimings.Phase.FAKER_RANDOMIZERS_INIT, FirstNameRandomizer::new);
+        static final LastNameRandomizer lastNameRandomizer = BootstrapTimings.time(BootstrapTimings.Phase.FAKER_RANDOMIZERS_INIT, LastNameRandomizer::new);
+
+        static {
+            BootstrapTimings.record(BootstrapTimings.Phase.ARRANGER_INITIALIZATION, System.nanoTime() - initializationStart);
+            BootstrapTimings.finish();
+            if (ArrangerSettings.current().getBootstrapSummary()) {
+                System.err.println(BootstrapTimings.summary());
+            }
+        }
+    }
+
+    /**
+     * Starts the Arranger bootstrap (the custom arrangers scan and instantiation, the Markov chain load and the Faker dictionaries)
+     * in a background thread, so that it overlaps with whatever the caller does next, e.g. the test discovery.
+     * The first Arranger call waits only for the part of the bootstrap that is still in progress.
+     * Subsequent calls return the same future.
+     *
+     * @return the future completed when the bootstrap is finished
+     */
+    public static CompletableFuture<Void> warmUpAsync() {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        if (!warmUp.compareAndSet(null, result)) {
+            return warmUp.get();
+        }
+        Thread thread = new Thread(() -> {
+            try {
+                Class.forName(Engines.class.getName(), true, Engines.class.getClassLoader());
+                result.complete(null);
+            } catch (Throwable e) {
+                System.err.println("Arranger warm-up failed: " + e);
+                result.completeExceptionally(e);
+            }
+        }, "arranger-warm-up");
+        thread.setDaemon(true);
+        thread.start();
+        return result;
+    }
+
+    /**
+     * Finishes the Arranger bootstrap (see {@link #warmUpAsync()}) and then, on the common ForkJoinPool, loads the classes reachable
+     * from the given types (fields, record components and sealed permitted subclasses) with their fields and constructors,
+     * and builds the engines of the custom arrangers for them. No values are generated, so the prewarming does not change what the tests get.
+     * The randomizers are not looked up: some of the easy-random ones draw their seeds from the engine when they are created,
+     * so the randomizer selection for these types is still resolved and cached by their first generation.
+     *
+     * @param types the types that are going to be arranged
+     * @return the future completed when the prewarming is finished
+     */
+    public static CompletableFuture<Void> prewarm(final Class<?>... types) {
+        return warmUpAsync().thenCompose(ignored -> new Prewarmer(ArrangersConfigurer.instance().defaultArrangers()).prewarm(types));
+    }
 
     /**
      * @see com.ocadotechnology.gembus.test.EnhancedRandom#nextObject
      */
     public static <T> T some(final Class<T> type, final String... excludedFields) {
-        CurrentEnhancedRandom.set(random);
-        return random.nextObject(type, excludedFields);
+        CurrentEnhancedRandom.set(Engines.random);
+        return GenerationProfiler.profile(type, () -> Engines.random.nextObject(type, excludedFields));
     }
 
     /**
@@ -59,11 +117,15 @@ public class Arranger {
      * @return a random instance of the given type
      */
     public static <T> T some(final Class<T> type, final Map<String, Supplier<?>> overrides) {
-        CurrentEnhancedRandom.set(random);
+        CurrentEnhancedRandom.set(Engines.random);
+        return GenerationProfiler.profile(type, () -> someWithOverrides(type, overrides));
+    }
+
+    private static <T> T someWithOverrides(final Class<T> type, final Map<String, Supplier<?>> overrides) {
         String[] toIgnore = overrides.keySet().stream()
                 .filter(field -> !ReflectionHelper.isPrimitiveField(type, field))
                 .toArray(String[]::new);
-        T result = random.nextObject(type, toIgnore);
+        T result = Engines.random.nextObject(type, toIgnore);
         if (type.isRecord()) {
             return Rearranger.copy(result, overrides);
         } else {
@@ -78,8 +140,12 @@ public class Arranger {
      * Use {@link Arranger#some(Class, String...)} instead.
      */
     public static <T> T someSimplified(final Class<T> type, final String... excludedFields) {
-        CurrentEnhancedRandom.set(simplifiedRandom);
-        return simplifiedRandom.nextObject(type, excludedFields);
+        CurrentEnhancedRandom.set(SimplifiedRandomHolder.simplifiedRandom);
+        return SimplifiedRandomHolder.simplifiedRandom.nextObject(type, excludedFields);
+    }
+
+    private static class SimplifiedRandomHolder {
+        static final EnhancedRandom simplifiedRandom = ArrangersConfigurer.instance().simplifiedRandom();
     }
 
     /**
@@ -93,16 +159,16 @@ public class Arranger {
      * @return a random instance of the given type
      */
     public static <T> Stream<T> someObjects(final Class<T> type, final int amount, final Map<String, Supplier<?>> overrides) {
-        CurrentEnhancedRandom.set(random);
+        CurrentEnhancedRandom.set(Engines.random);
         String[] toIgnore = overrides.keySet().toArray(new String[overrides.size()]);
-        return random.objects(type, amount, toIgnore).map(o -> {
+        return GenerationProfiler.profile(type, Engines.random.objects(type, amount, toIgnore).map(o -> {
             if (type.isRecord()) {
                 return Rearranger.copy(o, overrides);
             } else {
                 OverridesHelper.applyOverrides(o, overrides);
                 return o;
             }
-        });
+        }));
     }
 
     /**
@@ -113,8 +179,31 @@ public class Arranger {
      * @return a random instance of the given type
      */
     public static <T> Stream<T> someObjects(final Class<T> type, final int amount, final String... excludedFields) {
-        CurrentEnhancedRandom.set(random);
-        return random.objects(type, amount, excludedFields);
+        CurrentEnhancedRandom.set(Engines.random);
+        return GenerationProfiler.profile(type, Engines.random.objects(type, amount, excludedFields));
+    }
+
+    /**
+     * Records the object tree generated by the given arrangement, e.g. {@code Arranger.explain(() -> some(Order.class))},
+     * with the number of generated values, the randomizer or custom arranger that produced them and the time spent per field.
+     * The trace can be exported with {@link GenerationTrace#toCollapsedStacks()} and rendered as a flame graph.
+     *
+     * @param arrangement the arrangement to trace, it is executed in the calling thread
+     * @return the trace and the arranged object
+     */
+    public static <T> GenerationTrace<T> explain(Supplier<T> arrangement) {
+        return GenerationTracer.trace(arrangement);
+    }
+
+    /**
+     * Counts the objects, collections and strings created by the given arrangement, e.g. {@code Arranger.measure(() -> some(Order.class))},
+     * helpful when tuning {@code arranger.maxRandomizationDepth}.
+     *
+     * @param arrangement the arrangement to measure, it is executed in the calling thread
+     * @return the counts and the arranged object
+     */
+    public static <T> GenerationMeasurement<T> measure(Supplier<T> arrangement) {
+        return GenerationCounter.measure(arrangement);
     }
 
     /**
@@ -124,11 +213,17 @@ public class Arranger {
         T whatever;
         int noTries = 0;
         do {
+            if (noTries > 0) {
+                ArrangerStatistics.someMatchingRetry();
+            }
             whatever = some(type, excludedFields);
             if (noTries++ > 250) {
+                ArrangerStatistics.someMatchingFailure();
+                SomeMatchingStatistics.record(type, predicate, noTries, false);
                 throw new CannotSatisfyPredicateException(type.getName());
             }
         } while (!predicate.test(whatever));
+        SomeMatchingStatistics.record(type, predicate, noTries, true);
         return whatever;
     }
 
@@ -149,14 +244,14 @@ public class Arranger {
      * @return whatever (pseudo random) email
      */
     public static String someEmail() {
-        return emailRandomizer.getRandomValue();
+        return Engines.emailRandomizer.getRandomValue();
     }
 
     /**
      * @return whatever (pseudo-random) text, that looks a bit like a sequence of words; there is a Markov chain trained on English text underneath that generates a sequence of characters
      */
     public static String someText() {
-        return stringRandomizer.getRandomValue();
+        return Engines.stringRandomizer.getRandomValue();
     }
 
     /**
@@ -209,11 +304,11 @@ public class Arranger {
     }
 
     public static long someLong() {
-        return random.nextObject(Long.class);
+        return Engines.random.nextObject(Long.class);
     }
 
     public static int someInteger() {
-        return random.nextObject(Integer.class);
+        return Engines.random.nextObject(Integer.class);
     }
 
     /**
@@ -235,7 +330,7 @@ public class Arranger {
         if (boundIncl <= 1) {
             return 1;
         }
-        return 1 + random.easyRandom.nextInt(boundIncl - 1);
+        return 1 + Engines.random.easyRandom().nextInt(boundIncl - 1);
     }
 
     private static int someNonNegativeInt() {
@@ -254,11 +349,11 @@ public class Arranger {
     }
 
     public static boolean someBoolean() {
-        return random.easyRandom.nextBoolean();
+        return Engines.random.easyRandom().nextBoolean();
     }
 
     public static float someFloat() {
-        return random.easyRandom.nextFloat();
+        return Engines.random.easyRandom().nextFloat();
     }
 
     /**
@@ -266,11 +361,11 @@ public class Arranger {
      * @param max exclusive
      */
     public static float someFloat(float min, float max) {
-        return random.easyRandom.nextFloat(min, max);
+        return Engines.random.easyRandom().nextFloat(min, max);
     }
 
     public static double someDouble() {
-        return random.easyRandom.nextDouble();
+        return Engines.random.easyRandom().nextDouble();
     }
 
     /**
@@ -278,7 +373,7 @@ public class Arranger {
      * @param max exclusive
      */
     public static double someDouble(double min, double max) {
-        return random.easyRandom.nextDouble(min, max);
+        return Engines.random.easyRandom().nextDouble(min, max);
     }
 
     public static <T> T someFrom(Collection<T> source) {
@@ -315,11 +410,11 @@ public class Arranger {
     }
 
     public static String someFirstName() {
-        return firstNameRandomizer.getRandomValue();
+        return Engines.firstNameRandomizer.getRandomValue();
     }
 
     public static String someLastName() {
-        return lastNameRandomizer.getRandomValue();
+        return Engines.lastNameRandomizer.getRandomValue();
     }
 
     public static String someStringLike(String regex) {
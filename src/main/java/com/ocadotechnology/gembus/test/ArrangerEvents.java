@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import com.ocadotechnology.gembus.test.internal.InternalAccess;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Entry point for the JFR events emitted by Test Arranger (see {@link ArrangerGenerationEvent} and {@link RearrangerCopyEvent}).
+ * The events are disabled by default and the calls fall through to the wrapped code when JFR is not recording them.
+ * On runtimes without jdk.jfr (e.g. Android) the events are never emitted.
+ * The copies are recorded by {@link com.ocadotechnology.gembus.test.rearranger.Rearranger} through {@link InternalAccess}.
+ */
+final class ArrangerEvents {
+
+    private static final boolean jfrAvailable = isJfrAvailable();
+    static final AtomicInteger activeTrackers = new AtomicInteger();
+
+    static {
+        InternalAccess.setCopyRecorder(ArrangerEvents::recordCopy);
+    }
+
+    private ArrangerEvents() {
+    }
+
+    static <T> T recordGeneration(Class<T> type, String[] excludedFields, boolean customArranger, Supplier<T> generation) {
+        if (jfrAvailable) {
+            return JfrEventRecorder.recordGeneration(type, excludedFields, customArranger, generation);
+        }
+        return generation.get();
+    }
+
+    static void instanceCreated(int depth) {
+        if (activeTrackers.get() > 0) {
+            JfrEventRecorder.instanceCreated(depth);
+        }
+    }
+
+    /**
+     * Records a {@link com.ocadotechnology.gembus.test.rearranger.Rearranger} copy.
+     *
+     * @param type             the type of the copied object
+     * @param overriddenFields the names of the overridden fields
+     * @param copy             the copy operation
+     * @param <T>              the type of the copied object
+     * @return the result of the copy operation
+     */
+    static <T> T recordCopy(Class<?> type, Collection<String> overriddenFields, Supplier<T> copy) {
+        ArrangerStatistics.rearrangerCopy();
+        if (jfrAvailable) {
+            return JfrEventRecorder.recordCopy(type, overriddenFields, copy);
+        }
+        return copy.get();
+    }
+
+    private static boolean isJfrAvailable() {
+        if ("Dalvik".equals(System.getProperty("java.vm.name"))) {
+            return false;
+        }
+        try {
+            Class.forName("jdk.jfr.Event", false, ArrangerEvents.class.getClassLoader());
+            return true;
+        } catch (ClassNotFoundException | LinkageError e) {
+            return false;
+        }
+    }
+}
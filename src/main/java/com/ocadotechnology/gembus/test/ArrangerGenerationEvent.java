@@ -0,0 +1,55 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted for every object requested from {@link EnhancedRandom}.
+ * Disabled by default, enable it in the recording settings, e.g.
+ * {@code -XX:StartFlightRecording:+com.ocadotechnology.gembus.test.ArrangerGeneration#enabled=true}.
+ */
+@Name("com.ocadotechnology.gembus.test.ArrangerGeneration")
+@Label("Arranger Generation")
+@Category("Test Arranger")
+@Description("Generation of a random instance by Test Arranger")
+@Enabled(false)
+@StackTrace(false)
+class ArrangerGenerationEvent extends jdk.jfr.Event {
+
+    @Label("Target Type")
+    Class<?> targetType;
+
+    @Label("Excluded Fields")
+    String excludedFields;
+
+    @Label("Custom Arranger")
+    @Description("Whether the instance was produced by a CustomArranger")
+    boolean customArranger;
+
+    @Label("Depth")
+    @Description("The deepest randomization depth reached while populating the instance")
+    int depth;
+
+    @Label("Object Count")
+    @Description("Number of objects instantiated while populating the instance, nested generations included")
+    int objectCount;
+}
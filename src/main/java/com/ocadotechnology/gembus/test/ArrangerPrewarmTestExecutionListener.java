@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.platform.engine.support.descriptor.ClassSource;
+import org.junit.platform.launcher.TestExecutionListener;
+import org.junit.platform.launcher.TestIdentifier;
+import org.junit.platform.launcher.TestPlan;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Calls {@link Arranger#prewarm(Class[])} with the types listed in the {@link ArrangerPrewarm} annotations of the test classes
+ * in the test plan, so that the prewarming runs on idle cores while the first tests execute.
+ * It is registered as a service, but does nothing when none of the test classes is annotated.
+ */
+public class ArrangerPrewarmTestExecutionListener implements TestExecutionListener {
+
+    @Override
+    public void testPlanExecutionStarted(TestPlan testPlan) {
+        Class<?>[] types = prewarmedTypes(testPlan, testPlan.getRoots()).distinct().toArray(Class<?>[]::new);
+        if (types.length > 0) {
+            Arranger.prewarm(types);
+        }
+    }
+
+    private Stream<Class<?>> prewarmedTypes(TestPlan testPlan, Set<TestIdentifier> identifiers) {
+        return identifiers.stream()
+                .flatMap(identifier -> Stream.concat(prewarmedTypes(identifier), prewarmedTypes(testPlan, testPlan.getChildren(identifier))));
+    }
+
+    private Stream<Class<?>> prewarmedTypes(TestIdentifier identifier) {
+        return identifier.getSource()
+                .filter(ClassSource.class::isInstance)
+                .flatMap(source -> loadClass((ClassSource) source))
+                .map(testClass -> testClass.getAnnotation(ArrangerPrewarm.class))
+                .filter(Objects::nonNull)
+                .stream()
+                .flatMap(annotation -> Arrays.stream(annotation.value()));
+    }
+
+    private Optional<Class<?>> loadClass(ClassSource source) {
+        try {
+            return Optional.of(source.getJavaClass());
+        } catch (RuntimeException e) {
+            System.err.println("Cannot load " + source.getClassName() + " to look for @ArrangerPrewarm: " + e);
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.util.List;
+
+/**
+ * The Arranger configuration resolved once from the system properties and {@code arranger.properties},
+ * so that the generation does not look the properties up and parse them on every call.
+ * Tests that change the properties at runtime have to {@link #reload()} the settings afterwards.
+ * Note that the properties read during the Arranger bootstrap (e.g. {@code arranger.root}) do not affect the already initialized Arranger.
+ */
+public final class ArrangerSettings {
+
+    private static volatile ArrangerSettings current = resolve();
+
+    private final String rootPackage;
+    private final boolean cacheEnable;
+    private final boolean randomSeedEnabled;
+    private final boolean overrideDefaults;
+    private final int maxRandomizationDepth;
+    private final List<String> androidCustomArrangers;
+    private final boolean profileEnabled;
+    private final String profileFile;
+    private final double someMatchingWarningThreshold;
+    private final boolean bootstrapSummary;
+    private final String scanCacheFile;
+    private final boolean indexEnabled;
+    private final boolean jmxEnabled;
+
+    private ArrangerSettings() {
+        rootPackage = PropertiesWrapper.getRootPackage();
+        cacheEnable = PropertiesWrapper.getCacheEnable();
+        randomSeedEnabled = PropertiesWrapper.getRandomSeedEnabled();
+        overrideDefaults = PropertiesWrapper.getOverrideDefaults();
+        maxRandomizationDepth = PropertiesWrapper.getMaxRandomizationDepth();
+        androidCustomArrangers = List.copyOf(PropertiesWrapper.getAndroidCustomArrangers());
+        profileEnabled = PropertiesWrapper.getProfileEnabled();
+        profileFile = PropertiesWrapper.getProfileFile();
+        someMatchingWarningThreshold = PropertiesWrapper.getSomeMatchingWarningThreshold();
+        bootstrapSummary = PropertiesWrapper.getBootstrapSummary();
+        scanCacheFile = PropertiesWrapper.getScanCacheFile();
+        indexEnabled = PropertiesWrapper.getIndexEnabled();
+        jmxEnabled = PropertiesWrapper.getJmxEnabled();
+    }
+
+    private static ArrangerSettings resolve() {
+        return new ArrangerSettings();
+    }
+
+    /**
+     * @return the settings resolved at the first use or at the last {@link #reload()}
+     */
+    public static ArrangerSettings current() {
+        return current;
+    }
+
+    /**
+     * Resolves the settings again, e.g. after a test has changed a system property.
+     *
+     * @return the new settings
+     */
+    public static ArrangerSettings reload() {
+        ArrangerSettings result = resolve();
+        current = result;
+        return result;
+    }
+
+    public String getRootPackage() {
+        return rootPackage;
+    }
+
+    public boolean getCacheEnable() {
+        return cacheEnable;
+    }
+
+    public boolean getRandomSeedEnabled() {
+        return randomSeedEnabled;
+    }
+
+    public boolean getOverrideDefaults() {
+        return overrideDefaults;
+    }
+
+    public int getMaxRandomizationDepth() {
+        return maxRandomizationDepth;
+    }
+
+    public List<String> getAndroidCustomArrangers() {
+        return androidCustomArrangers;
+    }
+
+    public boolean getProfileEnabled() {
+        return profileEnabled;
+    }
+
+    public String getProfileFile() {
+        return profileFile;
+    }
+
+    public double getSomeMatchingWarningThreshold() {
+        return someMatchingWarningThreshold;
+    }
+
+    public boolean getBootstrapSummary() {
+        return bootstrapSummary;
+    }
+
+    public String getScanCacheFile() {
+        return scanCacheFile;
+    }
+
+    public boolean getIndexEnabled() {
+        return indexEnabled;
+    }
+
+    public boolean getJmxEnabled() {
+        return jmxEnabled;
+    }
+}
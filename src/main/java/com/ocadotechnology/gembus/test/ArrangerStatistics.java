@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.ObjectName;
+
+/**
+ * The counters are always collected, they are exposed in the platform MBean server only with {@code arranger.jmx.enable},
+ * as starting the MBean server is expensive and Arranger initializes it during its bootstrap.
+ */
+final class ArrangerStatistics implements ArrangerStatisticsMXBean {
+
+    static final String OBJECT_NAME = "com.ocadotechnology.gembus.test:type=ArrangerStatistics";
+    static final ArrangerStatistics instance = new ArrangerStatistics();
+
+    private static final ThreadLocal<int[]> generationNesting = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final LongAdder easyRandomInstancesBuilt = new LongAdder();
+    private final LongAdder exclusionCacheLookups = new LongAdder();
+    private final LongAdder exclusionCacheMisses = new LongAdder();
+    private final LongAdder someMatchingRetries = new LongAdder();
+    private final LongAdder someMatchingFailures = new LongAdder();
+    private final LongAdder rearrangerCopies = new LongAdder();
+    private final Map<Class<?>, LongAdder> customArrangerInvocations = new ConcurrentHashMap<>();
+    private final LongAdder generationTimeNanos = new LongAdder();
+
+    static {
+        if (ArrangerSettings.current().getJmxEnabled()) {
+            register();
+        }
+    }
+
+    private ArrangerStatistics() {
+    }
+
+    static void easyRandomBuilt() {
+        instance.easyRandomInstancesBuilt.increment();
+    }
+
+    static void exclusionCacheLookup() {
+        instance.exclusionCacheLookups.increment();
+    }
+
+    static void exclusionCacheMiss() {
+        instance.exclusionCacheMisses.increment();
+    }
+
+    static void someMatchingRetry() {
+        instance.someMatchingRetries.increment();
+    }
+
+    static void someMatchingFailure() {
+        instance.someMatchingFailures.increment();
+    }
+
+    static void rearrangerCopy() {
+        instance.rearrangerCopies.increment();
+    }
+
+    static void customArrangerInvoked(Class<?> type) {
+        instance.customArrangerInvocations.computeIfAbsent(type, key -> new LongAdder()).increment();
+    }
+
+    static <T> T timeGeneration(Supplier<T> generation) {
+        int[] nesting = generationNesting.get();
+        if (nesting[0]++ > 0) {
+            try {
+                return generation.get();
+            } finally {
+                nesting[0]--;
+            }
+        }
+        long start = System.nanoTime();
+        try {
+            return generation.get();
+        } finally {
+            nesting[0]--;
+            instance.generationTimeNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public long getEasyRandomInstancesBuilt() {
+        return easyRandomInstancesBuilt.sum();
+    }
+
+    @Override
+    public long getExclusionCacheHits() {
+        return Math.max(0, exclusionCacheLookups.sum() - exclusionCacheMisses.sum());
+    }
+
+    @Override
+    public long getExclusionCacheMisses() {
+        return exclusionCacheMisses.sum();
+    }
+
+    @Override
+    public long getSomeMatchingRetries() {
+        return someMatchingRetries.sum();
+    }
+
+    @Override
+    public long getSomeMatchingFailures() {
+        return someMatchingFailures.sum();
+    }
+
+    @Override
+    public Map<String, Double> getSomeMatchingAcceptanceRates() {
+        Map<String, Double> result = new TreeMap<>();
+        SomeMatchingStatistics.get().forEach(callSite -> result.put(callSite.getType().getName() + " " + callSite.getPredicate(), callSite.getAcceptanceRate()));
+        return result;
+    }
+
+    @Override
+    public long getRearrangerCopies() {
+        return rearrangerCopies.sum();
+    }
+
+    @Override
+    public Map<String, Long> getCustomArrangerInvocations() {
+        Map<String, Long> result = new TreeMap<>();
+        customArrangerInvocations.forEach((type, counter) -> result.put(type.getName(), counter.sum()));
+        return result;
+    }
+
+    @Override
+    public long getGenerationTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(generationTimeNanos.sum());
+    }
+
+    static void register() {
+        if ("Dalvik".equals(System.getProperty("java.vm.name"))) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(instance, new ObjectName(OBJECT_NAME));
+        } catch (InstanceAlreadyExistsException e) {
+            // already registered, e.g. by another class loader in this JVM
+        } catch (Exception | LinkageError e) {
+            Logger.getLogger(ArrangerStatistics.class.getName()).log(Level.WARNING, "Unable to register " + OBJECT_NAME, e);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.util.Map;
+
+/**
+ * Counters of the Test Arranger engine, registered in the platform MBean server
+ * as {@code com.ocadotechnology.gembus.test:type=ArrangerStatistics}.
+ */
+public interface ArrangerStatisticsMXBean {
+
+    /**
+     * @return the number of EasyRandom instances built, including the ones created for sets of excluded fields
+     */
+    long getEasyRandomInstancesBuilt();
+
+    /**
+     * @return the number of lookups in the excluded fields cache that found an already built EasyRandom
+     */
+    long getExclusionCacheHits();
+
+    /**
+     * @return the number of lookups in the excluded fields cache that required building a new EasyRandom
+     */
+    long getExclusionCacheMisses();
+
+    /**
+     * @return the number of rejected candidates in {@code Arranger.someMatching}
+     */
+    long getSomeMatchingRetries();
+
+    /**
+     * @return the number of {@code Arranger.someMatching} calls that failed to satisfy the predicate
+     */
+    long getSomeMatchingFailures();
+
+    /**
+     * @return the ratio of accepted to generated instances by {@code Arranger.someMatching} call site (type and predicate class)
+     */
+    Map<String, Double> getSomeMatchingAcceptanceRates();
+
+    /**
+     * @return the number of {@code Rearranger.copy} calls
+     */
+    long getRearrangerCopies();
+
+    /**
+     * @return the number of instances produced by custom arrangers, by the name of the arranged type
+     */
+    Map<String, Long> getCustomArrangerInvocations();
+
+    /**
+     * @return the time spent in generation of random objects in milliseconds, nested generations are not counted twice
+     */
+    long getGenerationTimeMillis();
+}
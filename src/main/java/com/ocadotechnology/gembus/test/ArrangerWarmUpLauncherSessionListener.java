@@ -0,0 +1,36 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.platform.launcher.LauncherSession;
+import org.junit.platform.launcher.LauncherSessionListener;
+
+/**
+ * Starts {@link Arranger#warmUpAsync()} as soon as the JUnit Platform launcher session opens,
+ * so that the Arranger bootstrap overlaps with the test discovery.
+ * It is registered as a service, but does nothing unless {@code arranger.warmUp.enable} is set to true.
+ * The property is read directly, as resolving the {@link ArrangerSettings} here would freeze them before any test
+ * had a chance to set the properties.
+ */
+public class ArrangerWarmUpLauncherSessionListener implements LauncherSessionListener {
+
+    @Override
+    public void launcherSessionOpened(LauncherSession session) {
+        if (PropertiesWrapper.getWarmUpEnabled()) {
+            Arranger.warmUpAsync();
+        }
+    }
+}
@@ -18,8 +18,11 @@ package com.ocadotechnology.gembus.test;
 import org.jeasy.random.EasyRandomParameters;
 
 import java.lang.reflect.Field;
-import java.util.HashMap;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
@@ -29,29 +32,35 @@ class ArrangersConfigurer {
     static final int STRING_MAX_LENGTH = 16;
     static final int CACHE_SIZE = 15;
     static final AtomicBoolean defaultInitialized = new AtomicBoolean(false);
-    private static ArrangersConfigurer instance;
+    /**
+     * Set while the configurer instantiates the custom arrangers, their engines are assigned right after the instantiation.
+     */
+    static final ThreadLocal<Boolean> instantiatingArrangers = ThreadLocal.withInitial(() -> false);
 
+    private final ReflectionHelper reflectionHelper;
     private final Map<Class<?>, CustomArranger<?>> defaultArrangers;
-    private final Map<Class<?>, CustomArranger<?>> simplifiedArrangers;
+    private volatile Map<Class<?>, CustomArranger<?>> simplifiedArrangers;
 
     private ArrangersConfigurer() {
-        final ReflectionHelper reflectionHelper = new ReflectionHelper();
-
-        defaultArrangers = reflectionHelper.createAllCustomArrangers();
-        simplifiedArrangers = reflectionHelper.createAllCustomArrangers();
+        reflectionHelper = new ReflectionHelper();
+        defaultArrangers = createAllCustomArrangers();
     }
 
+    /**
+     * The bootstrap is expensive, concurrent first callers wait for the single initialization of the holder class.
+     */
     static ArrangersConfigurer instance() {
-        if (instance == null) {
-            instance = new ArrangersConfigurer();
-        }
-        return instance;
+        return InstanceHolder.instance;
+    }
+
+    private static class InstanceHolder {
+        static final ArrangersConfigurer instance = new ArrangersConfigurer();
     }
 
     static EasyRandomParameters getEasyRandomDefaultParameters() {
         return sharedParameters()
                 .collectionSizeRange(1, 4)
-                .randomizationDepth(PropertiesWrapper.getMaxRandomizationDepth())
+                .randomizationDepth(ArrangerSettings.current().getMaxRandomizationDepth())
                 .stringLengthRange(STRING_MIN_LENGTH, STRING_MAX_LENGTH);
     }
 
@@ -70,8 +79,46 @@ class ArrangersConfigurer {
         }
     }
 
+    Map<Class<?>, CustomArranger<?>> defaultArrangers() {
+        return defaultArrangers;
+    }
+
+    /**
+     * An equivalent of {@link #defaultRandom()} for the custom arrangers instantiated directly,
+     * it neither rebuilds the engines of the registered arrangers nor builds its own until used.
+     */
+    EnhancedRandom lazyDefaultRandom() {
+        return new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomDefaultParameters).buildLazily(defaultArrangers, SeedHelper.calculateSeed());
+    }
+
     EnhancedRandom simplifiedRandom() {
-        return randomWithArrangers(simplifiedArrangers, new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomSimplifiedParameters));
+        return randomWithArrangers(simplifiedArrangers(), new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomSimplifiedParameters));
+    }
+
+    /**
+     * The simplified arrangers are needed only by the deprecated {@code someSimplified}, so they are created on the first use.
+     */
+    private Map<Class<?>, CustomArranger<?>> simplifiedArrangers() {
+        Map<Class<?>, CustomArranger<?>> result = simplifiedArrangers;
+        if (result == null) {
+            synchronized (this) {
+                result = simplifiedArrangers;
+                if (result == null) {
+                    result = createAllCustomArrangers();
+                    simplifiedArrangers = result;
+                }
+            }
+        }
+        return result;
+    }
+
+    private Map<Class<?>, CustomArranger<?>> createAllCustomArrangers() {
+        instantiatingArrangers.set(true);
+        try {
+            return reflectionHelper.createAllCustomArrangers();
+        } finally {
+            instantiatingArrangers.remove();
+        }
     }
 
     EnhancedRandom randomForGivenConfiguration(Class<?> type, Map<Class<?>, CustomArranger<?>> arrangers, Supplier<EasyRandomParameters> parametersSupplier) {
@@ -88,14 +135,15 @@ class ArrangersConfigurer {
     private static EasyRandomParameters sharedParameters() {
         return new MyEasyRandomParameters()
                 .objectPoolSize(calculateObjectPoolSize())
-                .objectFactory(new DecoratedObjectFactory(PropertiesWrapper.getCacheEnable()))
+                .objectFactory(new DecoratedObjectFactory(ArrangerSettings.current().getCacheEnable()))
+                .randomizerProvider(TracingRandomizerProvider.create())
                 .excludeField(Field::isSynthetic)
                 .seed(SeedHelper.calculateSeed())
-                .overrideDefaultInitialization(PropertiesWrapper.getOverrideDefaults());
+                .overrideDefaultInitialization(ArrangerSettings.current().getOverrideDefaults());
     }
 
     private static int calculateObjectPoolSize() {
-        if (PropertiesWrapper.getCacheEnable()) {
+        if (ArrangerSettings.current().getCacheEnable()) {
             return CACHE_SIZE;
         } else {
             return -1;
@@ -103,18 +151,56 @@ class ArrangersConfigurer {
     }
 
     private EnhancedRandom randomWithArrangers(Map<Class<?>, CustomArranger<?>> arrangers, EnhancedRandom.Builder randomBuilder) {
-        arrangers.forEach((clazz, customArranger) -> {
-            EnhancedRandom random = randomBuilder.build(
+        BootstrapTimings.run(BootstrapTimings.Phase.CUSTOM_ARRANGER_RANDOM_BUILD, () -> arrangers.forEach((clazz, customArranger) -> {
+            EnhancedRandom random = randomBuilder.buildLazily(
                     withoutGivenType(arrangers, clazz),
                     SeedHelper.customArrangerTypeSpecificSeedRespectingRandomSeedSetting(clazz));
             customArranger.setEnhancedRandom(random);
-        });
-        return randomBuilder.build(arrangers, SeedHelper.calculateSeed());
+        }));
+        return BootstrapTimings.time(BootstrapTimings.Phase.ARRANGER_RANDOM_BUILD, () -> randomBuilder.build(arrangers, SeedHelper.calculateSeed()));
     }
 
     private Map<Class<?>, CustomArranger<?>> withoutGivenType(Map<Class<?>, CustomArranger<?>> arrangers, Class<?> type) {
-        final HashMap<Class<?>, CustomArranger<?>> forCustomArranger = new HashMap<>(arrangers);
-        forCustomArranger.remove(type);
-        return forCustomArranger;
+        return new ArrangersWithoutType(arrangers, type);
+    }
+
+    /**
+     * A view instead of a copy, as there is one per custom arranger and each one would hold all the other arrangers.
+     */
+    private static class ArrangersWithoutType extends AbstractMap<Class<?>, CustomArranger<?>> {
+        private final Map<Class<?>, CustomArranger<?>> arrangers;
+        private final Class<?> skippedType;
+
+        ArrangersWithoutType(Map<Class<?>, CustomArranger<?>> arrangers, Class<?> skippedType) {
+            this.arrangers = arrangers;
+            this.skippedType = skippedType;
+        }
+
+        @Override
+        public CustomArranger<?> get(Object key) {
+            return key == skippedType ? null : arrangers.get(key);
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return key != skippedType && arrangers.containsKey(key);
+        }
+
+        @Override
+        public Set<Entry<Class<?>, CustomArranger<?>>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public Iterator<Entry<Class<?>, CustomArranger<?>>> iterator() {
+                    return arrangers.entrySet().stream()
+                            .filter(entry -> entry.getKey() != skippedType)
+                            .iterator();
+                }
+
+                @Override
+                public int size() {
+                    return arrangers.containsKey(skippedType) ? arrangers.size() - 1 : arrangers.size();
+                }
+            };
+        }
     }
 }
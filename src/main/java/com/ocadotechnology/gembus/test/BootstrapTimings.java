@@ -0,0 +1,151 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Supplier;
+
+/**
+ * Time spent in the phases of the Arranger bootstrap, i.e. before the first {@code some} call returns.
+ * Set {@code arranger.bootstrap.summary=true} to print them to stderr once Arranger is initialized.
+ * Nothing is recorded after that, e.g. the engines built later for excluded fields or {@code someSimplified} are not bootstrap cost.
+ */
+public final class BootstrapTimings {
+
+    /**
+     * The bootstrap phases. Phases that run more than once, e.g. the scan for the default and the simplified arrangers, are summed up.
+     * The time of a phase excludes the phases nested in it (e.g. an EnhancedRandom built while a custom arranger is constructed),
+     * except for {@link #ARRANGER_INITIALIZATION}, which is the total.
+     */
+    public enum Phase {
+        PROPERTIES_FILE_LOAD("arranger.properties load"),
+        CLASSPATH_SCAN("custom arrangers classpath scan"),
+        CUSTOM_ARRANGER_CONSTRUCTION("custom arrangers construction"),
+        CUSTOM_ARRANGER_RANDOM_BUILD("custom arrangers EnhancedRandom build"),
+        ARRANGER_RANDOM_BUILD("Arranger EnhancedRandom build"),
+        MARKOV_CHAIN_LOAD("Markov chain load"),
+        FAKER_RANDOMIZERS_INIT("Faker randomizers init"),
+        ARRANGER_INITIALIZATION("Arranger initialization in total");
+
+        private final String description;
+
+        Phase(String description) {
+            this.description = description;
+        }
+
+        public String getDescription() {
+            return description;
+        }
+    }
+
+    private static final Recorder recorder = new Recorder();
+
+    private BootstrapTimings() {
+    }
+
+    /**
+     * @return the time spent in each phase that has already run
+     */
+    public static Map<Phase, Duration> get() {
+        return recorder.get();
+    }
+
+    static <T> T time(Phase phase, Supplier<T> action) {
+        return recorder.time(phase, action);
+    }
+
+    static void record(Phase phase, long phaseNanos) {
+        recorder.record(phase, phaseNanos);
+    }
+
+    static void run(Phase phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Called once Arranger is initialized, the phases that run later are not recorded.
+     */
+    static void finish() {
+        recorder.finish();
+    }
+
+    static String summary() {
+        return recorder.summary();
+    }
+
+    static class Recorder {
+        private final AtomicLongArray nanos = new AtomicLongArray(Phase.values().length);
+        private final ThreadLocal<Deque<long[]>> nestedNanos = ThreadLocal.withInitial(ArrayDeque::new);
+        private volatile boolean finished = false;
+
+        Map<Phase, Duration> get() {
+            Map<Phase, Duration> result = new EnumMap<>(Phase.class);
+            for (Phase phase : Phase.values()) {
+                long phaseNanos = nanos.get(phase.ordinal());
+                if (phaseNanos > 0) {
+                    result.put(phase, Duration.ofNanos(phaseNanos));
+                }
+            }
+            return Collections.unmodifiableMap(result);
+        }
+
+        <T> T time(Phase phase, Supplier<T> action) {
+            if (finished) {
+                return action.get();
+            }
+            Deque<long[]> nested = nestedNanos.get();
+            long[] nestedInThisPhase = new long[1];
+            nested.push(nestedInThisPhase);
+            long start = System.nanoTime();
+            try {
+                return action.get();
+            } finally {
+                long elapsed = System.nanoTime() - start;
+                nested.pop();
+                if (!nested.isEmpty()) {
+                    nested.peek()[0] += elapsed;
+                }
+                record(phase, elapsed - nestedInThisPhase[0]);
+            }
+        }
+
+        void record(Phase phase, long phaseNanos) {
+            if (!finished) {
+                nanos.addAndGet(phase.ordinal(), phaseNanos);
+            }
+        }
+
+        void finish() {
+            finished = true;
+        }
+
+        String summary() {
+            StringBuilder result = new StringBuilder("Test Arranger bootstrap:");
+            get().forEach((phase, duration) -> result.append(String.format(Locale.ROOT, "%n  %-40s %10.1f ms", phase.getDescription(), duration.toNanos() / 1e6)));
+            return result.toString();
+        }
+    }
+}
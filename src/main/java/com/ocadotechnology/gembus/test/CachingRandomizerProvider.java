@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.jeasy.random.annotation.Priority;
+import org.jeasy.random.api.Randomizer;
+import org.jeasy.random.api.RandomizerContext;
+import org.jeasy.random.api.RandomizerProvider;
+import org.jeasy.random.api.RandomizerRegistry;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Selects the randomizers exactly like the EasyRandom default provider (the highest priority randomizer returned by any registry),
+ * but remembers the selection for each field and type of the engine, so that the repeated generation of the same types
+ * does not query all the registries for every field again.
+ * <p>
+ * Only the deterministic selections are remembered: when no registry has a randomizer, or when all the registries returned
+ * the same instances as in the previous lookup. Some registries (e.g. the annotation and bean validation ones) create a new
+ * randomizer on each lookup, those lookups are always delegated, so the generated values do not change.
+ */
+class CachingRandomizerProvider implements RandomizerProvider {
+
+    private static final Resolution NO_RANDOMIZER = new Resolution(null, null, true);
+    private static final Resolution DYNAMIC = new Resolution(null, null, false);
+
+    private RandomizerRegistry[] registries = new RandomizerRegistry[0];
+    private final Map<Field, Resolution> byField = new ConcurrentHashMap<>();
+    private final Map<Class<?>, Resolution> byType = new ConcurrentHashMap<>();
+
+    @Override
+    public Randomizer<?> getRandomizerByField(Field field, RandomizerContext context) {
+        return resolve(byField, field, RandomizerRegistry::getRandomizer);
+    }
+
+    @Override
+    public <T> Randomizer<T> getRandomizerByType(Class<T> type, RandomizerContext context) {
+        return (Randomizer<T>) resolve(byType, type, RandomizerRegistry::getRandomizer);
+    }
+
+    @Override
+    public void setRandomizerRegistries(Set<RandomizerRegistry> randomizerRegistries) {
+        List<RandomizerRegistry> sorted = new ArrayList<>(List.of(registries));
+        sorted.addAll(randomizerRegistries);
+        sorted.sort(byPriority);
+        registries = sorted.toArray(new RandomizerRegistry[0]);
+        byField.clear();
+        byType.clear();
+    }
+
+    private <K> Randomizer<?> resolve(Map<K, Resolution> resolutions, K key, BiFunction<RandomizerRegistry, K, Randomizer<?>> lookup) {
+        Resolution previous = resolutions.get(key);
+        if (previous != null && previous.stable) {
+            return previous.selected;
+        }
+        Randomizer<?>[] candidates = new Randomizer<?>[registries.length];
+        boolean found = false;
+        for (int i = 0; i < registries.length; i++) {
+            candidates[i] = lookup.apply(registries[i], key);
+            found |= candidates[i] != null;
+        }
+        if (!found) {
+            resolutions.put(key, NO_RANDOMIZER);
+            return null;
+        }
+        Randomizer<?> selected = select(candidates);
+        if (previous == null) {
+            resolutions.put(key, new Resolution(candidates, selected, false));
+        } else if (previous != DYNAMIC) {
+            resolutions.put(key, sameInstances(previous.candidates, candidates) ? new Resolution(null, selected, true) : DYNAMIC);
+        }
+        return selected;
+    }
+
+    /**
+     * The first of the randomizers with the highest priority, as the default provider sorts them with a stable sort.
+     */
+    private static Randomizer<?> select(Randomizer<?>[] candidates) {
+        Randomizer<?> result = null;
+        int resultPriority = Integer.MIN_VALUE;
+        for (Randomizer<?> candidate : candidates) {
+            if (candidate != null) {
+                int priority = priority(candidate);
+                if (result == null || priority > resultPriority) {
+                    result = candidate;
+                    resultPriority = priority;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static boolean sameInstances(Randomizer<?>[] previous, Randomizer<?>[] current) {
+        for (int i = 0; i < current.length; i++) {
+            if (previous[i] != current[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static final Comparator<Object> byPriority = Comparator.comparingInt(CachingRandomizerProvider::priority).reversed();
+
+    private static int priority(Object object) {
+        Priority priority = object.getClass().getAnnotation(Priority.class);
+        return priority == null ? 0 : priority.value();
+    }
+
+    private static class Resolution {
+        final Randomizer<?>[] candidates;
+        final Randomizer<?> selected;
+        final boolean stable;
+
+        Resolution(Randomizer<?>[] candidates, Randomizer<?> selected, boolean stable) {
+            this.candidates = candidates;
+            this.selected = selected;
+            this.stable = stable;
+        }
+    }
+}
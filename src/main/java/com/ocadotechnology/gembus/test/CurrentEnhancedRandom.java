@@ -29,6 +29,6 @@ public class CurrentEnhancedRandom {
     }
 
     public static EasyRandom getEasyRandom() {
-        return random.get().easyRandom;
+        return random.get().easyRandom();
     }
 }
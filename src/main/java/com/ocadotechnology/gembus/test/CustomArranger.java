@@ -34,12 +34,17 @@ public abstract class CustomArranger<T> {
 
     protected EnhancedRandom enhancedRandom = null;
     protected final Class<T> type = (Class<T>) ((ParameterizedType) getClass().getGenericSuperclass()).getActualTypeArguments()[0];
+    final EnhancedRandom.CustomArrangerRandomizer<T> randomizer = new EnhancedRandom.CustomArrangerRandomizer<>(this);
 
+    /**
+     * The arrangers found by the {@link Arranger} get their {@code enhancedRandom} replaced right after the instantiation,
+     * hence the one assigned here is built lazily, i.e. only when used before the replacement or in an arranger instantiated directly.
+     */
     protected CustomArranger() {
-        if (ArrangersConfigurer.defaultInitialized.get()) {
-            enhancedRandom = ArrangersConfigurer.instance().defaultRandom();
+        if (ArrangersConfigurer.defaultInitialized.get() && !ArrangersConfigurer.instantiatingArrangers.get()) {
+            enhancedRandom = ArrangersConfigurer.instance().lazyDefaultRandom();
         } else {
-            enhancedRandom = new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomDefaultParameters).build(new HashMap<>(), SeedHelper.calculateSeed());
+            enhancedRandom = new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomDefaultParameters).buildLazily(new HashMap<>(), SeedHelper.calculateSeed());
         }
     }
 
@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.annotation.processing.SupportedOptions;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Writes the binary names of all concrete {@link CustomArranger} subclasses found in the compiled sources
+ * to {@value #INDEX_RESOURCE}, so that the custom arrangers can be registered without scanning the classpath.
+ * <p>
+ * The processor is not registered as a service, it has to be enabled explicitly (e.g. with {@code -processor}
+ * or {@code annotationProcessorPaths}), because arrangers compiled without it (e.g. written in Kotlin)
+ * would be missing from the index.
+ * <p>
+ * With {@code -A}{@value #GENERATE_PROVIDER_OPTION}{@code =true} it also generates {@link CustomArrangerProvider} implementations
+ * that create the indexed arrangers directly: one {@value #PROVIDER_SIMPLE_NAME} in each package with arrangers
+ * and {@value #ROOT_PROVIDER_SIMPLE_NAME} in the root package that combines them. The root package is given with
+ * {@code -A}{@value #ROOT_OPTION}, it has to be the same as the {@code arranger.root} property the tests run with,
+ * which is where the root provider is looked up, and it has the same default. Only the arrangers from the root package are
+ * created, as only those are registered by the classpath scan. Arrangers that cannot be created from their package
+ * (private, inner or without a non-private no-arg constructor) are left out with a warning.
+ */
+@SupportedAnnotationTypes("*")
+@SupportedOptions({CustomArrangerIndexProcessor.GENERATE_PROVIDER_OPTION, CustomArrangerIndexProcessor.ROOT_OPTION})
+public class CustomArrangerIndexProcessor extends AbstractProcessor {
+
+    static final String INDEX_RESOURCE = "META-INF/test-arranger/custom-arrangers";
+    static final String GENERATE_PROVIDER_OPTION = "arranger.generateProvider";
+    static final String PROVIDER_SIMPLE_NAME = "GeneratedCustomArrangerProvider";
+    static final String ROOT_OPTION = PropertiesWrapper.rootKey;
+    static final String ROOT_PROVIDER_SIMPLE_NAME = "GeneratedRootCustomArrangerProvider";
+
+    private final Set<String> arrangers = new TreeSet<>();
+    private boolean providersWritten = false;
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+        TypeElement customArranger = processingEnv.getElementUtils().getTypeElement(CustomArranger.class.getCanonicalName());
+        if (customArranger == null) {
+            return false;
+        }
+        TypeMirror customArrangerType = processingEnv.getTypeUtils().erasure(customArranger.asType());
+        if (roundEnv.processingOver()) {
+            readPreviousIndex(customArrangerType);
+            writeIndex();
+        } else {
+            roundEnv.getRootElements().forEach(element -> collect(element, customArrangerType));
+            if (!providersWritten && Boolean.parseBoolean(processingEnv.getOptions().get(GENERATE_PROVIDER_OPTION))) {
+                readPreviousIndex(customArrangerType);
+                writeProviders();
+                providersWritten = true;
+            }
+        }
+        return false;
+    }
+
+    private void collect(Element element, TypeMirror customArrangerType) {
+        if (!(element instanceof TypeElement)) {
+            return;
+        }
+        TypeElement type = (TypeElement) element;
+        if (isConcreteArranger(type, customArrangerType)) {
+            arrangers.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+        }
+        type.getEnclosedElements().forEach(enclosed -> collect(enclosed, customArrangerType));
+    }
+
+    private boolean isConcreteArranger(TypeElement type, TypeMirror customArrangerType) {
+        return type.getKind() == ElementKind.CLASS
+                && !type.getModifiers().contains(Modifier.ABSTRACT)
+                && processingEnv.getTypeUtils().isSubtype(processingEnv.getTypeUtils().erasure(type.asType()), customArrangerType);
+    }
+
+    /**
+     * Incremental compilation passes only the changed sources to the processor,
+     * the arrangers from the previous index are kept as long as they still exist.
+     */
+    private void readPreviousIndex(TypeMirror customArrangerType) {
+        try {
+            FileObject previous = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (BufferedReader reader = new BufferedReader(previous.openReader(true))) {
+                reader.lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .filter(className -> {
+                            TypeElement type = processingEnv.getElementUtils().getTypeElement(className.replace('$', '.'));
+                            return type != null && isConcreteArranger(type, customArrangerType);
+                        })
+                        .forEach(arrangers::add);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            // there is no previous index
+        }
+    }
+
+    private void writeIndex() {
+        try {
+            FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", INDEX_RESOURCE);
+            try (Writer writer = index.openWriter()) {
+                for (String arranger : arrangers) {
+                    writer.write(arranger);
+                    writer.write('\n');
+                }
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Cannot write " + INDEX_RESOURCE + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * The providers are generated in the first round, so that they are compiled like any other source.
+     * The previous index is merged before, so that they cover the arrangers from the sources that were not recompiled,
+     * but the arrangers generated by other annotation processors in later rounds are not covered.
+     */
+    private void writeProviders() {
+        String rootPackage = processingEnv.getOptions().getOrDefault(ROOT_OPTION, PropertiesWrapper.defaultRoot);
+        Map<String, List<TypeElement>> arrangersByPackage = new TreeMap<>();
+        for (String arranger : arrangers) {
+            TypeElement type = processingEnv.getElementUtils().getTypeElement(arranger.replace('$', '.'));
+            if (type == null || !ReflectionHelper.isInPackage(arranger, rootPackage)) {
+                continue;
+            }
+            String packageName = processingEnv.getElementUtils().getPackageOf(type).getQualifiedName().toString();
+            if (packageName.isEmpty() || !isInstantiableFromItsPackage(type)) {
+                processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING,
+                        arranger + " cannot be created by " + PROVIDER_SIMPLE_NAME + ", list it in arranger.android.customArrangers instead", type);
+                continue;
+            }
+            arrangersByPackage.computeIfAbsent(packageName, ignored -> new ArrayList<>()).add(type);
+        }
+        arrangersByPackage.forEach((packageName, types) -> writeSource(packageName + "." + PROVIDER_SIMPLE_NAME, packageProviderSource(packageName, types)));
+        writeSource(rootProvider(rootPackage), rootProviderSource(rootPackage, arrangersByPackage.keySet()));
+    }
+
+    /**
+     * @return the name of the provider combining the providers generated for the packages under the given root package
+     */
+    static String rootProvider(String rootPackage) {
+        return rootPackage.isEmpty() ? ROOT_PROVIDER_SIMPLE_NAME : rootPackage + "." + ROOT_PROVIDER_SIMPLE_NAME;
+    }
+
+    private boolean isInstantiableFromItsPackage(TypeElement type) {
+        if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC)) {
+            return false;
+        }
+        for (Element element = type; element instanceof TypeElement; element = element.getEnclosingElement()) {
+            if (element.getModifiers().contains(Modifier.PRIVATE)) {
+                return false;
+            }
+        }
+        return ElementFilter.constructorsIn(type.getEnclosedElements()).stream()
+                .anyMatch(constructor -> constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE));
+    }
+
+    private String packageProviderSource(String packageName, List<TypeElement> types) {
+        StringBuilder puts = new StringBuilder();
+        for (TypeElement type : types) {
+            String name = type.getQualifiedName().toString();
+            puts.append("        result.put(").append(name).append(".class, ").append(name).append("::new);\n");
+        }
+        return providerSource(packageName, puts.toString());
+    }
+
+    private String rootProviderSource(String rootPackage, Set<String> packageNames) {
+        StringBuilder puts = new StringBuilder();
+        for (String packageName : packageNames) {
+            puts.append("        result.putAll(new ").append(packageName).append('.').append(PROVIDER_SIMPLE_NAME).append("().customArrangers());\n");
+        }
+        return providerSource(rootPackage, ROOT_PROVIDER_SIMPLE_NAME, puts.toString());
+    }
+
+    private String providerSource(String packageName, String puts) {
+        return providerSource(packageName, PROVIDER_SIMPLE_NAME, puts);
+    }
+
+    private String providerSource(String packageName, String simpleName, String puts) {
+        String provider = CustomArrangerProvider.class.getCanonicalName();
+        String resultType = "java.util.Map<Class<?>, java.util.function.Supplier<" + CustomArranger.class.getCanonicalName() + "<?>>>";
+        return (packageName.isEmpty() ? "" : "package " + packageName + ";\n\n")
+                + "@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")\n"
+                + "public final class " + simpleName + " implements " + provider + " {\n\n"
+                + "    @Override\n"
+                + "    public " + resultType + " customArrangers() {\n"
+                + "        " + resultType + " result = new java.util.LinkedHashMap<>();\n"
+                + puts
+                + "        return result;\n"
+                + "    }\n"
+                + "}\n";
+    }
+
+    private void writeSource(String className, String source) {
+        try (Writer writer = processingEnv.getFiler().createSourceFile(className).openWriter()) {
+            writer.write(source);
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.WARNING, "Cannot write " + className + ": " + e.getMessage());
+        }
+    }
+}
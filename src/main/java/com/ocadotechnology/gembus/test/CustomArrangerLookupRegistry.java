@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.jeasy.random.EasyRandomParameters;
+import org.jeasy.random.annotation.Priority;
+import org.jeasy.random.api.Randomizer;
+import org.jeasy.random.api.RandomizerRegistry;
+
+import java.lang.reflect.Field;
+import java.util.Map;
+
+/**
+ * Resolves the custom arrangers straight from the arrangers map shared by all the EnhancedRandom instances,
+ * instead of copying every arranger into the CustomRandomizerRegistry of each of them.
+ * Only this lookup is shared; the easy-random registries (internal, time, annotation, bean validation) stay per
+ * instance, as their randomizers are seeded from the type-specific seed of each instance.
+ * <p>
+ * The priority is higher than the one of the easy-random registries of the arranged values, so the custom arrangers
+ * win over them regardless of the order of the registries. It is the same as the ExclusionRandomizerRegistry one,
+ * which is always registered first, so the excluded fields and types are still skipped.
+ */
+@Priority(0)
+class CustomArrangerLookupRegistry implements RandomizerRegistry {
+
+    private final Map<Class<?>, CustomArranger<?>> arrangers;
+    private final Class<?> typeToSkip;
+
+    CustomArrangerLookupRegistry(Map<Class<?>, CustomArranger<?>> arrangers, Class<?> typeToSkip) {
+        this.arrangers = arrangers;
+        this.typeToSkip = typeToSkip;
+    }
+
+    @Override
+    public void init(EasyRandomParameters parameters) {
+    }
+
+    @Override
+    public Randomizer<?> getRandomizer(Field field) {
+        return getRandomizer(field.getType());
+    }
+
+    @Override
+    public Randomizer<?> getRandomizer(Class<?> type) {
+        if (type == typeToSkip) {
+            return null;
+        }
+        CustomArranger<?> arranger = arrangers.get(type);
+        return arranger == null ? null : arranger.randomizer;
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Creates the custom arrangers without reflection.
+ * The implementations are generated by {@link CustomArrangerIndexProcessor} when the
+ * {@value CustomArrangerIndexProcessor#GENERATE_PROVIDER_OPTION} option is set, and they are used on Android,
+ * where loading the classes listed in {@code arranger.android.customArrangers} and finding their constructors reflectively is slow.
+ */
+public interface CustomArrangerProvider {
+
+    /**
+     * @return the custom arranger classes mapped to the factories of their instances
+     */
+    Map<Class<?>, Supplier<CustomArranger<?>>> customArrangers();
+}
@@ -0,0 +1,163 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Stores the result of the custom arrangers classpath scan in a file.
+ * The file starts with a fingerprint of the classpath (the sizes and modification times of the jars and of the files
+ * under the root package in the directories), the cached arrangers are used only when the current classpath has the same fingerprint.
+ * The content is not read, so a build that rewrites the classes without changing them invalidates the cache.
+ */
+class CustomArrangerScanCache {
+
+    private final Path file;
+    private final String fingerprint;
+
+    CustomArrangerScanCache(Path file, String fingerprint) {
+        this.file = file;
+        this.fingerprint = fingerprint;
+    }
+
+    static String fingerprint(String classPath, String rootPackage) {
+        MessageDigest digest = sha256();
+        update(digest, rootPackage);
+        String packagePath = rootPackage.replace('.', File.separatorChar);
+        for (String entry : classPath.split(File.pathSeparator)) {
+            if (entry.isEmpty()) {
+                continue;
+            }
+            update(digest, entry);
+            Path path = Path.of(entry);
+            if (Files.isDirectory(path)) {
+                updateWithDirectory(digest, path.resolve(packagePath));
+            } else {
+                updateWithFile(digest, path);
+            }
+        }
+        StringBuilder result = new StringBuilder();
+        for (byte b : digest.digest()) {
+            result.append(String.format("%02x", b));
+        }
+        return result.toString();
+    }
+
+    Optional<List<Class<CustomArranger>>> read(ClassLoader classLoader) {
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            if (lines.isEmpty() || !fingerprint.equals(lines.get(0))) {
+                return Optional.empty();
+            }
+            List<Class<CustomArranger>> result = new ArrayList<>();
+            for (String className : lines.subList(1, lines.size())) {
+                Class<?> aClass = Class.forName(className, false, classLoader);
+                if (!CustomArranger.class.isAssignableFrom(aClass)) {
+                    return Optional.empty();
+                }
+                result.add((Class<CustomArranger>) aClass);
+            }
+            return Optional.of(result);
+        } catch (IOException | ClassNotFoundException | LinkageError e) {
+            return Optional.empty();
+        }
+    }
+
+    void write(List<String> classNames) {
+        try {
+            Path directory = file.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            List<String> lines = new ArrayList<>();
+            lines.add(fingerprint);
+            lines.addAll(classNames);
+            Files.write(temporary, lines, StandardCharsets.UTF_8);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | UnsupportedOperationException e) {
+            System.err.println("Cannot write the custom arrangers scan cache to " + file + ": " + e.getMessage());
+        }
+    }
+
+    private static void updateWithDirectory(MessageDigest digest, Path directory) {
+        if (!Files.isDirectory(directory)) {
+            update(digest, "-");
+            return;
+        }
+        Map<String, String> files = new TreeMap<>();
+        try {
+            Files.walkFileTree(directory, new SimpleFileVisitor<>() {
+                @Override
+                public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                    if (attributes.isRegularFile()) {
+                        files.put(directory.relativize(file).toString(), sizeAndModificationTime(attributes));
+                    }
+                    return FileVisitResult.CONTINUE;
+                }
+            });
+        } catch (IOException e) {
+            update(digest, "unreadable " + System.nanoTime());
+            return;
+        }
+        files.forEach((path, attributes) -> {
+            update(digest, path);
+            update(digest, attributes);
+        });
+    }
+
+    private static void updateWithFile(MessageDigest digest, Path path) {
+        try {
+            update(digest, sizeAndModificationTime(Files.readAttributes(path, BasicFileAttributes.class)));
+        } catch (IOException e) {
+            update(digest, "-");
+        }
+    }
+
+    private static String sizeAndModificationTime(BasicFileAttributes attributes) {
+        return attributes.size() + ":" + attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS);
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -43,6 +43,9 @@ public class DecoratedObjectFactory implements ObjectFactory {
     public <T> T createInstance(Class<T> type, RandomizerContext context) throws ObjectCreationException {
         try {
             T result = InstanceProducerHelper.createLeafInstance(originalFactory, type, context);
+            ArrangerEvents.instanceCreated(context.getCurrentRandomizationDepth());
+            GenerationTracer.instanceCreated(type, context);
+            GenerationCounter.instanceCreated(result);
             if (!cacheEnable) {
                 disableCache(type, context);
             }
@@ -29,7 +29,9 @@ import java.util.stream.Stream;
  */
 public class EnhancedRandom extends Random {
 
-    final EasyRandom easyRandom;
+    private final EasyRandomParameters parameters;
+    private final Object easyRandomLock = new Object();
+    private volatile EasyRandom easyRandom;
     private final Map<Class<?>, CustomArranger<?>> arrangers;
     private final Map<Set<String>, EasyRandom> cache = new ConcurrentHashMap<>();
     private final Supplier<EasyRandomParameters> parametersSupplier;
@@ -43,6 +45,16 @@ public class EnhancedRandom extends Random {
         }
 
         EnhancedRandom build(Map<Class<?>, CustomArranger<?>> customArrangersByTargetType, Long seed) {
+            EnhancedRandom result = new EnhancedRandom(customArrangersByTargetType, parametersSupplier, seed);
+            result.easyRandom();
+            return result;
+        }
+
+        /**
+         * The parameters are resolved immediately, but the underlying EasyRandom is built on the first use,
+         * so the custom arrangers that are never used do not pay for it.
+         */
+        EnhancedRandom buildLazily(Map<Class<?>, CustomArranger<?>> customArrangersByTargetType, Long seed) {
             return new EnhancedRandom(customArrangersByTargetType, parametersSupplier, seed);
         }
     }
@@ -50,10 +62,24 @@ public class EnhancedRandom extends Random {
     private EnhancedRandom(Map<Class<?>, CustomArranger<?>> arrangers, Supplier<EasyRandomParameters> parametersSupplier, long seed) {
         this.arrangers = arrangers;
         this.parametersSupplier = parametersSupplier;
-        EasyRandomParameters parameters = parametersSupplier.get();
+        this.parameters = parametersSupplier.get();
         parameters.seed(seed);
         addRandomizersToParameters(Optional.empty(), parameters, arrangers);
-        this.easyRandom = new EasyRandom(parameters);
+    }
+
+    EasyRandom easyRandom() {
+        EasyRandom result = easyRandom;
+        if (result == null) {
+            synchronized (easyRandomLock) {
+                result = easyRandom;
+                if (result == null) {
+                    result = new EasyRandom(parameters);
+                    easyRandom = result;
+                    ArrangerStatistics.easyRandomBuilt();
+                }
+            }
+        }
+        return result;
     }
 
     /**
@@ -66,7 +92,8 @@ public class EnhancedRandom extends Random {
      */
     public <T> T nextObject(final Class<T> type, final String... excludedFields) {
         final EasyRandom selectedEasyRandom = selectEasyRandomWithRespectToExclusion(type, excludedFields);
-        return NestingSafeExecutor.execute(type, () -> selectedEasyRandom.nextObject(type));
+        return ArrangerStatistics.timeGeneration(() -> ArrangerEvents.recordGeneration(type, excludedFields, arrangers.containsKey(type),
+                () -> NestingSafeExecutor.execute(type, () -> selectedEasyRandom.nextObject(type))));
     }
 
     /**
@@ -79,15 +106,21 @@ public class EnhancedRandom extends Random {
      * @return a stream of random instances of the given type
      */
     public <T> Stream<T> objects(final Class<T> type, final int amount, final String... excludedFields) {
+        if (amount < 0) {
+            throw new IllegalArgumentException("The stream size must be positive");
+        }
         final EasyRandom selectedEasyRandom = selectEasyRandomWithRespectToExclusion(type, excludedFields);
-        return selectedEasyRandom.objects(type, amount);
+        final boolean customArranger = arrangers.containsKey(type);
+        return Stream.generate(() -> ArrangerStatistics.timeGeneration(
+                        () -> ArrangerEvents.recordGeneration(type, excludedFields, customArranger, () -> selectedEasyRandom.nextObject(type))))
+                .limit(amount);
     }
 
     private <T> EasyRandom selectEasyRandomWithRespectToExclusion(Class<T> type, String[] excludedFields) {
         if (newEasyRandomWithFieldExclusionConfigIsRequired(type, excludedFields)) {
             return createEasyRandomWithExclusions(type, excludedFields);
         }
-        return easyRandom;
+        return easyRandom();
     }
 
     private <T> boolean newEasyRandomWithFieldExclusionConfigIsRequired(Class<T> type, String[] excludedFields) {
@@ -99,11 +132,12 @@ public class EnhancedRandom extends Random {
 
     private <T> EasyRandom createEasyRandomWithExclusions(Class<T> type, String[] excludedFields) {
         Set<String> fields = new HashSet<>(Arrays.asList(excludedFields));
-        cache.computeIfAbsent(fields, key -> {
+        ArrangerStatistics.exclusionCacheLookup();
+        return cache.computeIfAbsent(fields, key -> {
+            ArrangerStatistics.exclusionCacheMiss();
             EnhancedRandom er = ArrangersConfigurer.instance().randomForGivenConfiguration(type, arrangers, () -> addExclusionToParameters(fields));
-            return er.easyRandom;
+            return er.easyRandom();
         });
-        return cache.get(fields);
     }
 
     private EasyRandomParameters addExclusionToParameters(Set<String> fields) {
@@ -115,19 +149,23 @@ public class EnhancedRandom extends Random {
     }
 
     private void addRandomizersToParameters(Optional<Class> typeToSkip, EasyRandomParameters parameters, Map<Class<?>, CustomArranger<?>> customArrangers) {
-        for (Map.Entry<Class<?>, CustomArranger<?>> entry : customArrangers.entrySet()) {
-            if (entry.getKey() != typeToSkip.orElse(null)) {
-                final Class key = entry.getKey();
-                final Randomizer randomizer = customArrangerToRandomizer(entry.getValue());
-                parameters.randomize(key, randomizer);
-            }
-        }
+        parameters.randomizerRegistry(new CustomArrangerLookupRegistry(customArrangers, typeToSkip.orElse(null)));
         long newSeed = parameters.getSeed() + SeedHelper.customArrangerTypeSpecificSeedRespectingRandomSeedSetting(typeToSkip.orElse(CustomArranger.class));
         parameters.randomizerRegistry(new CustomArrangerRandomizerRegistry(newSeed));
     }
 
-    private Randomizer<?> customArrangerToRandomizer(CustomArranger arranger) {
-        return arranger::instance;
+    static class CustomArrangerRandomizer<T> implements Randomizer<T> {
+        final CustomArranger<T> arranger;
+
+        CustomArrangerRandomizer(CustomArranger<T> arranger) {
+            this.arranger = arranger;
+        }
+
+        @Override
+        public T getRandomValue() {
+            ArrangerStatistics.customArrangerInvoked(arranger.type);
+            return arranger.instance();
+        }
     }
 
 }
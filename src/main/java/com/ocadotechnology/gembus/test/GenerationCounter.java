@@ -0,0 +1,205 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Counts the instances created by {@link Arranger#measure}. Beans are counted when {@link DecoratedObjectFactory} creates them
+ * and the values produced by randomizers when {@link TracingRandomizerProvider} returns them. Collections, maps, arrays and records
+ * are created by EasyRandom without a hook, they are counted by walking the arranged graph at the end of the measurement.
+ */
+class GenerationCounter {
+
+    private static final int OBJECT_HEADER_BYTES = 12;
+    private static final int ARRAY_HEADER_BYTES = 16;
+    private static final int REFERENCE_BYTES = 4;
+    private static final int HASH_ENTRY_BYTES = 32;
+    private static final ThreadLocal<GenerationCounter> current = new ThreadLocal<>();
+    private static final AtomicInteger activeCounters = new AtomicInteger();
+    private static final Map<Class<?>, Long> shallowSizes = new ConcurrentHashMap<>();
+
+    private final Set<Object> counted = Collections.newSetFromMap(new IdentityHashMap<>());
+    private long objects;
+    private long collections;
+    private long strings;
+    private long bytes;
+
+    static <T> GenerationMeasurement<T> measure(Supplier<T> arrangement) {
+        GenerationCounter previous = current.get();
+        GenerationCounter counter = new GenerationCounter();
+        current.set(counter);
+        activeCounters.incrementAndGet();
+        try {
+            T result = arrangement.get();
+            counter.countUnhookedInstances(result);
+            return new GenerationMeasurement<>(result, counter.objects, counter.collections, counter.strings, counter.bytes);
+        } finally {
+            activeCounters.decrementAndGet();
+            current.set(previous);
+        }
+    }
+
+    static boolean isCounting() {
+        return activeCounters.get() > 0 && current.get() != null;
+    }
+
+    static void instanceCreated(Object instance) {
+        if (activeCounters.get() > 0) {
+            GenerationCounter counter = current.get();
+            if (counter != null) {
+                counter.count(instance);
+            }
+        }
+    }
+
+    private void count(Object instance) {
+        if (instance == null || instance instanceof Enum || instance instanceof Class || !counted.add(instance)) {
+            return;
+        }
+        if (instance instanceof String) {
+            strings++;
+            bytes += shallowSize(String.class) + align(ARRAY_HEADER_BYTES + ((String) instance).length());
+        } else if (instance instanceof Collection || instance instanceof Map || instance.getClass().isArray()) {
+            collections++;
+            bytes += containerSize(instance);
+        } else {
+            objects++;
+            bytes += shallowSize(instance.getClass());
+        }
+    }
+
+    private void countUnhookedInstances(Object result) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        Deque<Object> toVisit = new ArrayDeque<>();
+        if (result != null) {
+            toVisit.push(result);
+        }
+        while (!toVisit.isEmpty()) {
+            Object instance = toVisit.pop();
+            if (!visited.add(instance)) {
+                continue;
+            }
+            boolean container = instance instanceof Collection || instance instanceof Map || instance.getClass().isArray();
+            if (container || instance.getClass().isRecord()) {
+                count(instance);
+            } else if (!counted.contains(instance)) {
+                continue;
+            }
+            referencedBy(instance).forEach(reference -> {
+                if (reference != null) {
+                    toVisit.push(reference);
+                }
+            });
+        }
+    }
+
+    private static Collection<?> referencedBy(Object instance) {
+        if (instance instanceof Collection) {
+            return (Collection<?>) instance;
+        }
+        if (instance instanceof Map) {
+            List<Object> result = new ArrayList<>(((Map<?, ?>) instance).keySet());
+            result.addAll(((Map<?, ?>) instance).values());
+            return result;
+        }
+        if (instance.getClass().isArray()) {
+            if (instance.getClass().getComponentType().isPrimitive()) {
+                return Collections.emptyList();
+            }
+            return Arrays.asList((Object[]) instance);
+        }
+        if (instance.getClass().getName().startsWith("java.")) {
+            return Collections.emptyList();
+        }
+        List<Object> result = new ArrayList<>();
+        for (Class<?> type = instance.getClass(); type != null && type != Object.class; type = type.getSuperclass()) {
+            for (Field field : type.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers()) && !field.getType().isPrimitive()) {
+                    try {
+                        field.setAccessible(true);
+                        result.add(field.get(instance));
+                    } catch (Exception e) {
+                        // inaccessible fields are not measured
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private static long containerSize(Object container) {
+        if (container.getClass().isArray()) {
+            Class<?> componentType = container.getClass().getComponentType();
+            return align(ARRAY_HEADER_BYTES + (long) Array.getLength(container) * fieldSize(componentType));
+        }
+        int size = container instanceof Map ? ((Map<?, ?>) container).size() : ((Collection<?>) container).size();
+        long backingArray = align(ARRAY_HEADER_BYTES + (long) Integer.highestOneBit(Math.max(size, 1) * 2 - 1) * REFERENCE_BYTES);
+        if (container instanceof Map || container instanceof Set) {
+            return shallowSize(container.getClass()) + backingArray + (long) size * HASH_ENTRY_BYTES;
+        }
+        return shallowSize(container.getClass()) + backingArray;
+    }
+
+    static long shallowSize(Class<?> type) {
+        return shallowSizes.computeIfAbsent(type, key -> {
+            long size = OBJECT_HEADER_BYTES;
+            for (Class<?> current = key; current != null; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers())) {
+                        size += fieldSize(field.getType());
+                    }
+                }
+            }
+            return align(size);
+        });
+    }
+
+    private static int fieldSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        if (type == byte.class || type == boolean.class) {
+            return 1;
+        }
+        return REFERENCE_BYTES;
+    }
+
+    private static long align(long size) {
+        return (size + 7) / 8 * 8;
+    }
+}
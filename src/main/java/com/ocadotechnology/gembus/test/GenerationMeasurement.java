@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+/**
+ * The size of the object graph created by a single {@link Arranger#measure} call.
+ *
+ * @param <T> the type of the arranged object
+ */
+public class GenerationMeasurement<T> {
+
+    private final T result;
+    private final long objects;
+    private final long collections;
+    private final long strings;
+    private final long estimatedShallowBytes;
+
+    GenerationMeasurement(T result, long objects, long collections, long strings, long estimatedShallowBytes) {
+        this.result = result;
+        this.objects = objects;
+        this.collections = collections;
+        this.strings = strings;
+        this.estimatedShallowBytes = estimatedShallowBytes;
+    }
+
+    /**
+     * @return the object returned by the measured arrangement
+     */
+    public T getResult() {
+        return result;
+    }
+
+    /**
+     * @return the number of created objects other than collections and strings, i.e. beans, records, boxed primitives, dates, etc.
+     */
+    public long getObjects() {
+        return objects;
+    }
+
+    /**
+     * @return the number of created collections, maps and arrays
+     */
+    public long getCollections() {
+        return collections;
+    }
+
+    /**
+     * @return the number of generated strings
+     */
+    public long getStrings() {
+        return strings;
+    }
+
+    /**
+     * @return the sum of shallow sizes of all counted instances, estimated for a 64-bit JVM with compressed references
+     */
+    public long getEstimatedShallowBytes() {
+        return estimatedShallowBytes;
+    }
+
+    @Override
+    public String toString() {
+        return "objects=" + objects + ", collections=" + collections + ", strings=" + strings + ", estimatedShallowBytes=" + estimatedShallowBytes;
+    }
+}
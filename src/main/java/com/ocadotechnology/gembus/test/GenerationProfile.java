@@ -0,0 +1,106 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Generation cost per requested type: count, latency histogram and allocated bytes.
+ */
+class GenerationProfile {
+
+    private static final int SUB_BUCKETS = 4;
+    private static final int BUCKETS = Long.SIZE * SUB_BUCKETS;
+
+    private final Map<Class<?>, TypeProfile> profiles = new ConcurrentHashMap<>();
+
+    void record(Class<?> type, long nanos, long allocatedBytes) {
+        profiles.computeIfAbsent(type, key -> new TypeProfile()).record(nanos, allocatedBytes);
+    }
+
+    List<String> report() {
+        List<Map.Entry<Class<?>, TypeProfile>> entries = new ArrayList<>(profiles.entrySet());
+        entries.sort(Comparator.comparingLong((Map.Entry<Class<?>, TypeProfile> entry) -> entry.getValue().totalNanos.sum()).reversed());
+        List<String> lines = new ArrayList<>();
+        lines.add(String.format(Locale.ROOT, "%-80s %10s %12s %12s %12s %16s %14s",
+                "type", "count", "total [ms]", "avg [us]", "p99 [us]", "allocated [MB]", "avg [B/op]"));
+        for (Map.Entry<Class<?>, TypeProfile> entry : entries) {
+            TypeProfile profile = entry.getValue();
+            long count = profile.count.sum();
+            long allocated = profile.allocatedBytes.sum();
+            lines.add(String.format(Locale.ROOT, "%-80s %10d %12.1f %12.1f %12.1f %16s %14s",
+                    entry.getKey().getName(),
+                    count,
+                    profile.totalNanos.sum() / 1e6,
+                    profile.totalNanos.sum() / 1e3 / count,
+                    profile.percentileNanos(0.99) / 1e3,
+                    allocated < 0 ? "n/a" : String.format(Locale.ROOT, "%.1f", allocated / 1024.0 / 1024.0),
+                    allocated < 0 ? "n/a" : String.valueOf(allocated / count)));
+        }
+        return lines;
+    }
+
+    static int bucketOf(long nanos) {
+        if (nanos < SUB_BUCKETS) {
+            return (int) Math.max(nanos, 0);
+        }
+        int magnitude = Long.SIZE - 1 - Long.numberOfLeadingZeros(nanos);
+        int subBucket = (int) (nanos >>> (magnitude - 2)) & (SUB_BUCKETS - 1);
+        return magnitude * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int magnitude = bucket / SUB_BUCKETS;
+        long subBucket = bucket % SUB_BUCKETS;
+        return ((SUB_BUCKETS + subBucket + 1) << (magnitude - 2)) - 1;
+    }
+
+    private static class TypeProfile {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        final LongAdder allocatedBytes = new LongAdder();
+        final AtomicLongArray histogram = new AtomicLongArray(BUCKETS);
+
+        void record(long nanos, long allocated) {
+            count.increment();
+            totalNanos.add(nanos);
+            allocatedBytes.add(allocated);
+            histogram.incrementAndGet(bucketOf(nanos));
+        }
+
+        long percentileNanos(double percentile) {
+            long threshold = (long) Math.ceil(count.sum() * percentile);
+            long seen = 0;
+            for (int bucket = 0; bucket < BUCKETS; bucket++) {
+                seen += histogram.get(bucket);
+                if (seen >= threshold) {
+                    return upperBoundOf(bucket);
+                }
+            }
+            return upperBoundOf(BUCKETS - 1);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Opt-in profiling of {@link Arranger} calls enabled with {@code arranger.profile=true}, checked on every call,
+ * so it can be switched with {@link ArrangerSettings#reload()}.
+ * The report ranked by the total generation time is written to {@code arranger.profile.file} at JVM shutdown,
+ * when the profiling is still enabled then.
+ */
+class GenerationProfiler {
+
+    static <T> T profile(Class<?> type, Supplier<T> generation) {
+        if (!ArrangerSettings.current().getProfileEnabled()) {
+            return generation.get();
+        }
+        long allocatedBefore = Session.allocationCounter.allocatedBytes();
+        long start = System.nanoTime();
+        T result = generation.get();
+        long nanos = System.nanoTime() - start;
+        Session.profile.record(type, nanos, Session.allocationCounter.allocatedSince(allocatedBefore));
+        return result;
+    }
+
+    static <T> Stream<T> profile(Class<?> type, Stream<T> objects) {
+        if (!ArrangerSettings.current().getProfileEnabled()) {
+            return objects;
+        }
+        Spliterator<T> generated = objects.spliterator();
+        return StreamSupport.stream(new Spliterators.AbstractSpliterator<T>(generated.estimateSize(), generated.characteristics()) {
+            @Override
+            public boolean tryAdvance(Consumer<? super T> action) {
+                Object[] next = new Object[1];
+                boolean advanced = profile(type, () -> generated.tryAdvance(object -> next[0] = object));
+                if (advanced) {
+                    action.accept((T) next[0]);
+                }
+                return advanced;
+            }
+        }, false);
+    }
+
+    static List<String> report() {
+        return Session.profile.report();
+    }
+
+    static void writeReport(Path file) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            Files.write(file, report());
+            System.err.println("Test Arranger profile written to " + file.toAbsolutePath());
+        } catch (IOException e) {
+            System.err.println("Unable to write Test Arranger profile to " + file.toAbsolutePath() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Initialized by the first profiled call, so the JVMs that do not profile neither enable the allocation counting nor add the hook.
+     */
+    private static class Session {
+        private static final GenerationProfile profile = new GenerationProfile();
+        private static final AllocationCounter allocationCounter = AllocationCounter.create();
+
+        static {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                if (ArrangerSettings.current().getProfileEnabled()) {
+                    writeReport(Paths.get(ArrangerSettings.current().getProfileFile()));
+                }
+            }, "arranger-profile-report"));
+        }
+    }
+
+    private static class AllocationCounter {
+        private final com.sun.management.ThreadMXBean threadMXBean;
+
+        private AllocationCounter(com.sun.management.ThreadMXBean threadMXBean) {
+            this.threadMXBean = threadMXBean;
+        }
+
+        static AllocationCounter create() {
+            try {
+                ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+                if (threadMXBean instanceof com.sun.management.ThreadMXBean && ((com.sun.management.ThreadMXBean) threadMXBean).isThreadAllocatedMemorySupported()) {
+                    ((com.sun.management.ThreadMXBean) threadMXBean).setThreadAllocatedMemoryEnabled(true);
+                    return new AllocationCounter((com.sun.management.ThreadMXBean) threadMXBean);
+                }
+            } catch (Exception | LinkageError e) {
+                System.err.println("Allocated bytes will not be profiled: " + e.getMessage());
+            }
+            return new AllocationCounter(null);
+        }
+
+        long allocatedBytes() {
+            return threadMXBean == null ? -1 : threadMXBean.getCurrentThreadAllocatedBytes();
+        }
+
+        long allocatedSince(long before) {
+            return threadMXBean == null ? -1 : threadMXBean.getCurrentThreadAllocatedBytes() - before;
+        }
+    }
+}
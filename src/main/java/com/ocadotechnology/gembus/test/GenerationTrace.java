@@ -0,0 +1,195 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * The object tree arranged by a single {@link Arranger#explain} call, aggregated by field path:
+ * all elements of a collection share one node, whose count divided by the parent count is the average collection size.
+ *
+ * @param <T> the type of the arranged object
+ */
+public class GenerationTrace<T> {
+
+    private final T result;
+    private final Node root;
+
+    GenerationTrace(T result, Node root) {
+        this.result = result;
+        this.root = root;
+    }
+
+    /**
+     * @return the object returned by the traced arrangement
+     */
+    public T getResult() {
+        return result;
+    }
+
+    /**
+     * @return the top level objects created by the traced arrangement
+     */
+    public List<Node> getNodes() {
+        return root.getChildren();
+    }
+
+    /**
+     * @return the total time of the traced arrangement in nanoseconds
+     */
+    public long getTotalNanos() {
+        return root.totalNanos;
+    }
+
+    /**
+     * Exports the trace in the collapsed stack format accepted by flame graph tools (e.g. flamegraph.pl or speedscope),
+     * one line per node with its self time in nanoseconds.
+     *
+     * @return the collapsed stacks, one per line
+     */
+    public String toCollapsedStacks() {
+        StringBuilder result = new StringBuilder();
+        for (Node node : root.getChildren()) {
+            appendCollapsed(result, "", node);
+        }
+        return result.toString();
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder();
+        for (Node node : root.getChildren()) {
+            appendTree(result, "", node, 1);
+        }
+        return result.toString();
+    }
+
+    private static void appendCollapsed(StringBuilder result, String parentStack, Node node) {
+        String stack = parentStack.isEmpty() ? node.frameName() : parentStack + ";" + node.frameName();
+        if (node.getSelfNanos() > 0) {
+            result.append(stack).append(' ').append(node.getSelfNanos()).append('\n');
+        }
+        for (Node child : node.getChildren()) {
+            appendCollapsed(result, stack, child);
+        }
+    }
+
+    private static void appendTree(StringBuilder result, String indentation, Node node, long parentCount) {
+        result.append(indentation)
+                .append(node.field == null ? "" : node.field + ": ")
+                .append(node.type == null ? "?" : node.type.getSimpleName())
+                .append(node.source.isEmpty() ? "" : " [" + node.source + "]")
+                .append(" x").append(node.count);
+        if (parentCount > 1 || node.count > parentCount) {
+            result.append(String.format(Locale.ROOT, " (%.1f per parent)", (double) node.count / parentCount));
+        }
+        result.append(String.format(Locale.ROOT, " %.3f ms", node.totalNanos / 1e6)).append('\n');
+        for (Node child : node.getChildren()) {
+            appendTree(result, indentation + "  ", child, node.count);
+        }
+    }
+
+    /**
+     * A field (or a top level object) of the arranged tree.
+     */
+    public static class Node {
+        private final String field;
+        private final Class<?> type;
+        private final String source;
+        private final Map<String, Node> children = new LinkedHashMap<>();
+        long count;
+        long totalNanos;
+
+        Node(String field, Class<?> type, String source) {
+            this.field = field;
+            this.type = type;
+            this.source = source;
+        }
+
+        Node child(String field, Class<?> type, String source) {
+            String key = field + "|" + (type == null ? "" : type.getName()) + "|" + source;
+            return children.computeIfAbsent(key, k -> new Node(field, type, source));
+        }
+
+        /**
+         * @return the field name or null for top level objects
+         */
+        public String getField() {
+            return field;
+        }
+
+        /**
+         * @return the generated type or null when it is not known, e.g. for a record populated by its canonical constructor
+         */
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * @return what produced the value: {@code new} for instances created by the object factory, the randomizer or the custom arranger
+         * name, {@code nesting limit} for the empty leaves produced when {@code arranger.maxRandomizationDepth} was reached
+         */
+        public String getSource() {
+            return source;
+        }
+
+        /**
+         * @return the number of values generated for this node
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the time spent in this node including its children in nanoseconds
+         */
+        public long getTotalNanos() {
+            return totalNanos;
+        }
+
+        /**
+         * @return the time spent in this node excluding its children in nanoseconds
+         */
+        public long getSelfNanos() {
+            long childrenNanos = children.values().stream().mapToLong(child -> child.totalNanos).sum();
+            return Math.max(0, totalNanos - childrenNanos);
+        }
+
+        public List<Node> getChildren() {
+            return new ArrayList<>(children.values());
+        }
+
+        Collection<Node> childNodes() {
+            return children.values();
+        }
+
+        private String frameName() {
+            String name = (field == null ? "" : field + ":") + (type == null ? "?" : type.getName());
+            return "new".equals(source) || source.isEmpty() ? name : name + "[" + source + "]";
+        }
+
+        @Override
+        public String toString() {
+            return Objects.toString(field, "") + ":" + (type == null ? "?" : type.getSimpleName()) + " x" + count;
+        }
+    }
+}
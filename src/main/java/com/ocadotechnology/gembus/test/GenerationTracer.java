@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.jeasy.random.api.Randomizer;
+import org.jeasy.random.api.RandomizerContext;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Builds a {@link GenerationTrace} from the creation hooks: {@link DecoratedObjectFactory}, {@link NestingSafeExecutor}
+ * and the randomizers returned by {@link TracingRandomizerProvider}.
+ * Every EasyRandom call has its own randomization context (e.g. the one started by a custom arranger), the context
+ * is attached to the node that was being generated when it started.
+ */
+class GenerationTracer {
+
+    private static final ThreadLocal<GenerationTracer> current = new ThreadLocal<>();
+    private static final AtomicInteger activeTracers = new AtomicInteger();
+
+    private final GenerationTrace.Node root = new GenerationTrace.Node(null, null, "");
+    private final Deque<Frame> frames = new ArrayDeque<>();
+
+    static <T> GenerationTrace<T> trace(Supplier<T> arrangement) {
+        GenerationTracer previous = current.get();
+        GenerationTracer tracer = new GenerationTracer();
+        current.set(tracer);
+        activeTracers.incrementAndGet();
+        try {
+            long start = System.nanoTime();
+            T result = arrangement.get();
+            long end = System.nanoTime();
+            tracer.closeFramesAbove(0, end);
+            tracer.root.count = 1;
+            tracer.root.totalNanos = end - start;
+            return new GenerationTrace<>(result, tracer.root);
+        } finally {
+            activeTracers.decrementAndGet();
+            current.set(previous);
+        }
+    }
+
+    static boolean isTracing() {
+        return activeTracers.get() > 0 && current.get() != null;
+    }
+
+    static void instanceCreated(Class<?> type, RandomizerContext context) {
+        if (activeTracers.get() > 0) {
+            GenerationTracer tracer = current.get();
+            if (tracer != null) {
+                tracer.open(context, null, type, "new", System.nanoTime());
+            }
+        }
+    }
+
+    static void nestingLimitReached(Class<?> type) {
+        if (activeTracers.get() > 0) {
+            GenerationTracer tracer = current.get();
+            if (tracer != null) {
+                tracer.innermostNode().child(null, type, "nesting limit").count++;
+            }
+        }
+    }
+
+    static <T> T traceRandomizer(Randomizer<T> randomizer, String field, Class<?> type, RandomizerContext context) {
+        GenerationTracer tracer = current.get();
+        if (tracer == null) {
+            return randomizer.getRandomValue();
+        }
+        Frame frame = tracer.open(context, field, type, sourceOf(randomizer), System.nanoTime());
+        Open opened = frame.open.peek();
+        int framesBefore = tracer.frames.size();
+        try {
+            return randomizer.getRandomValue();
+        } finally {
+            long end = System.nanoTime();
+            tracer.closeFramesAbove(framesBefore, end);
+            frame.closeFrom(opened.level, end);
+        }
+    }
+
+    private Frame open(RandomizerContext context, String field, Class<?> type, String source, long now) {
+        Frame frame = frameFor(context, now);
+        int level = context.getCurrentRandomizationDepth();
+        frame.closeFrom(level, now);
+        String[] path = pathOf(context, level);
+        if (field != null && level > 0) {
+            path[level - 1] = field;
+        }
+        for (int missingLevel = frame.nextLevel(); missingLevel < level; missingLevel++) {
+            GenerationTrace.Node missing = missingLevel == 0
+                    ? frame.top().child(null, context.getTargetType(), "")
+                    : frame.top().child(path[missingLevel - 1], null, "");
+            frame.push(missing, missingLevel, now);
+        }
+        GenerationTrace.Node node = frame.top().child(level == 0 ? null : path[level - 1], type, source);
+        frame.push(node, level, now);
+        return frame;
+    }
+
+    private static String[] pathOf(RandomizerContext context, int level) {
+        try {
+            String[] path = context.getCurrentField().split("\\.");
+            if (path.length >= level) {
+                return path;
+            }
+        } catch (RuntimeException e) {
+            // EasyRandom pushes record components without a field, such a path cannot be resolved
+        }
+        String[] unknown = new String[level];
+        Arrays.fill(unknown, "?");
+        return unknown;
+    }
+
+    private Frame frameFor(RandomizerContext context, long now) {
+        int index = frames.size();
+        for (Iterator<Frame> iterator = frames.iterator(); iterator.hasNext(); index--) {
+            if (iterator.next().context == context) {
+                closeFramesAbove(index, now);
+                return frames.peek();
+            }
+        }
+        Frame frame = new Frame(context, innermostNode());
+        frames.push(frame);
+        return frame;
+    }
+
+    private GenerationTrace.Node innermostNode() {
+        Frame frame = frames.peek();
+        return frame == null ? root : frame.top();
+    }
+
+    private void closeFramesAbove(int framesToKeep, long now) {
+        while (frames.size() > framesToKeep) {
+            frames.pop().closeFrom(0, now);
+        }
+    }
+
+    private static String sourceOf(Randomizer<?> randomizer) {
+        if (randomizer instanceof EnhancedRandom.CustomArrangerRandomizer) {
+            return ((EnhancedRandom.CustomArrangerRandomizer) randomizer).arranger.getClass().getSimpleName();
+        }
+        String name = randomizer.getClass().getSimpleName();
+        int lambda = name.indexOf("$$Lambda");
+        return lambda < 0 ? name : name.substring(0, lambda) + "$$Lambda";
+    }
+
+    private static class Frame {
+        final RandomizerContext context;
+        final GenerationTrace.Node base;
+        final Deque<Open> open = new ArrayDeque<>();
+
+        Frame(RandomizerContext context, GenerationTrace.Node base) {
+            this.context = context;
+            this.base = base;
+        }
+
+        GenerationTrace.Node top() {
+            return open.isEmpty() ? base : open.peek().node;
+        }
+
+        int nextLevel() {
+            return open.isEmpty() ? 0 : open.peek().level + 1;
+        }
+
+        void push(GenerationTrace.Node node, int level, long now) {
+            node.count++;
+            open.push(new Open(node, level, now));
+        }
+
+        void closeFrom(int level, long now) {
+            while (!open.isEmpty() && open.peek().level >= level) {
+                Open closed = open.pop();
+                closed.node.totalNanos += now - closed.start;
+            }
+        }
+    }
+
+    private static class Open {
+        final GenerationTrace.Node node;
+        final int level;
+        final long start;
+
+        Open(GenerationTrace.Node node, int level, long start) {
+            this.node = node;
+            this.level = level;
+            this.start = start;
+        }
+    }
+}
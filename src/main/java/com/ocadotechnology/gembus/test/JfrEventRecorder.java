@@ -0,0 +1,89 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * The only class that touches jdk.jfr, loaded by {@link ArrangerEvents} when JFR is available.
+ */
+class JfrEventRecorder {
+
+    private static final ThreadLocal<GenerationTracker> tracker = new ThreadLocal<>();
+
+    static <T> T recordGeneration(Class<T> type, String[] excludedFields, boolean customArranger, Supplier<T> generation) {
+        ArrangerGenerationEvent event = new ArrangerGenerationEvent();
+        if (!event.isEnabled()) {
+            return generation.get();
+        }
+        GenerationTracker parent = tracker.get();
+        GenerationTracker current = new GenerationTracker();
+        tracker.set(current);
+        ArrangerEvents.activeTrackers.incrementAndGet();
+        event.begin();
+        try {
+            return generation.get();
+        } finally {
+            event.end();
+            ArrangerEvents.activeTrackers.decrementAndGet();
+            tracker.set(parent);
+            if (parent != null) {
+                parent.add(current);
+            }
+            event.targetType = type;
+            event.excludedFields = String.join(",", excludedFields);
+            event.customArranger = customArranger;
+            event.depth = current.maxDepth;
+            event.objectCount = current.objectCount;
+            event.commit();
+        }
+    }
+
+    static void instanceCreated(int depth) {
+        GenerationTracker current = tracker.get();
+        if (current != null) {
+            current.objectCount++;
+            current.maxDepth = Math.max(current.maxDepth, depth);
+        }
+    }
+
+    static <T> T recordCopy(Class<?> type, Collection<String> overriddenFields, Supplier<T> copy) {
+        RearrangerCopyEvent event = new RearrangerCopyEvent();
+        if (!event.isEnabled()) {
+            return copy.get();
+        }
+        event.begin();
+        try {
+            return copy.get();
+        } finally {
+            event.end();
+            event.targetType = type;
+            event.overriddenFields = String.join(",", overriddenFields);
+            event.commit();
+        }
+    }
+
+    private static class GenerationTracker {
+        int objectCount;
+        int maxDepth;
+
+        void add(GenerationTracker nested) {
+            objectCount += nested.objectCount;
+            maxDepth = Math.max(maxDepth, nested.maxDepth);
+        }
+    }
+}
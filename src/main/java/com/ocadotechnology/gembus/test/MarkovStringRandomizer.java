@@ -23,7 +23,7 @@ public class MarkovStringRandomizer implements Randomizer<String> {
 
     private final int minLength;
     private final int maxLength;
-    private static MarkovChain markov = new MarkovChain("enMarkovChain");
+    private static MarkovChain markov = BootstrapTimings.time(BootstrapTimings.Phase.MARKOV_CHAIN_LOAD, () -> new MarkovChain("enMarkovChain"));
 
     public MarkovStringRandomizer(int minLength, int maxLength) {
         this.minLength = minLength;
@@ -23,7 +23,7 @@ public class NestingSafeExecutor {
 
     public static <T> T execute(Class<T> type, Supplier<T> supplier) {
         Integer nestingDepth = nestingLevel.get();
-        if (nestingDepth < PropertiesWrapper.getMaxRandomizationDepth()) {
+        if (nestingDepth < ArrangerSettings.current().getMaxRandomizationDepth()) {
             try {
                 nestingLevel.set(++nestingDepth);
                 return supplier.get();
@@ -31,7 +31,10 @@ public class NestingSafeExecutor {
                 nestingLevel.set(--nestingDepth);
             }
         } else {
-            return InstanceProducerHelper.createLeafInstance(type);
+            GenerationTracer.nestingLimitReached(type);
+            T leaf = InstanceProducerHelper.createLeafInstance(type);
+            GenerationCounter.instanceCreated(leaf);
+            return leaf;
         }
     }
 }
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Resolves ahead of time what the JVM caches for the first generation of the given types: loaded classes and their fields,
+ * constructors, record components and permitted subclasses, and builds the engines of the custom arrangers reachable from them.
+ * Nothing is generated and no randomizer is looked up, so the pseudo-random sequences are not affected;
+ * the randomizer selection is cached by {@link CachingRandomizerProvider} on the first generation.
+ * The classes are not initialized, as initializing unrelated classes concurrently may deadlock on their static initializers.
+ */
+class Prewarmer {
+
+    private final Map<Class<?>, CustomArranger<?>> arrangers;
+    private final Set<Class<?>> visited = ConcurrentHashMap.newKeySet();
+
+    Prewarmer(Map<Class<?>, CustomArranger<?>> arrangers) {
+        this.arrangers = arrangers;
+    }
+
+    CompletableFuture<Void> prewarm(Class<?>... types) {
+        return CompletableFuture.allOf(Arrays.stream(types)
+                .map(type -> CompletableFuture.runAsync(() -> visit(type), ForkJoinPool.commonPool()))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    private void visit(Class<?> type) {
+        while (type.isArray()) {
+            type = type.getComponentType();
+        }
+        if (type.isPrimitive() || isJdkType(type) || !visited.add(type)) {
+            return;
+        }
+        CustomArranger<?> arranger = arrangers.get(type);
+        if (arranger != null) {
+            arranger.enhancedRandom.easyRandom();
+        }
+        type.getDeclaredConstructors();
+        if (type.isRecord()) {
+            RecordComponent[] components = type.getRecordComponents();
+            for (RecordComponent component : components) {
+                visit(component.getGenericType());
+            }
+        }
+        if (type.isSealed()) {
+            for (Class<?> permitted : type.getPermittedSubclasses()) {
+                visit(permitted);
+            }
+        }
+        for (Class<?> current = type; current != null && !isJdkType(current); current = current.getSuperclass()) {
+            for (Field field : current.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    visit(field.getGenericType());
+                }
+            }
+        }
+    }
+
+    private void visit(Type type) {
+        if (type instanceof Class) {
+            visit((Class<?>) type);
+        } else if (type instanceof ParameterizedType) {
+            visit(((ParameterizedType) type).getRawType());
+            for (Type argument : ((ParameterizedType) type).getActualTypeArguments()) {
+                visit(argument);
+            }
+        } else if (type instanceof GenericArrayType) {
+            visit(((GenericArrayType) type).getGenericComponentType());
+        } else if (type instanceof WildcardType) {
+            for (Type bound : ((WildcardType) type).getUpperBounds()) {
+                visit(bound);
+            }
+        }
+    }
+
+    private static boolean isJdkType(Class<?> type) {
+        String name = type.getName();
+        return name.startsWith("java.") || name.startsWith("javax.") || name.startsWith("jdk.") || name.startsWith("sun.");
+    }
+}
@@ -17,12 +17,13 @@ package com.ocadotechnology.gembus.test;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 public class PropertiesWrapper {
 
-    private static final String rootKey = "arranger.root";
-    private static final String defaultRoot = "com.ocado";
+    static final String rootKey = "arranger.root";
+    static final String defaultRoot = "com.ocado";
     private static final String cacheKey = "arranger.cache.enable";
     private static final String defaultCache = "false";
     private static final String randomSeedKey = "arranger.randomseed";
@@ -33,7 +34,23 @@ public class PropertiesWrapper {
     private static final String androidCustomArrangers = "arranger.android.customArrangers";
     private static final String defaultAndroidCustomArrangers = "";
     private static final String defaultMaxRandomizationDepth = "4";
-    private static final PropertiesFromFile propertiesFromFile = new PropertiesFromFile();
+    private static final String profileKey = "arranger.profile";
+    private static final String defaultProfile = "false";
+    private static final String profileFileKey = "arranger.profile.file";
+    private static final String defaultProfileFile = "arranger-profile.txt";
+    private static final String someMatchingWarningThresholdKey = "arranger.someMatching.warningThreshold";
+    private static final String defaultSomeMatchingWarningThreshold = "0.05";
+    private static final String bootstrapSummaryKey = "arranger.bootstrap.summary";
+    private static final String defaultBootstrapSummary = "false";
+    private static final String scanCacheFileKey = "arranger.scanCache.file";
+    private static final String defaultScanCacheFile = "";
+    private static final String warmUpKey = "arranger.warmUp.enable";
+    private static final String defaultWarmUp = "false";
+    private static final String indexKey = "arranger.index.enable";
+    private static final String defaultIndex = "false";
+    private static final String jmxKey = "arranger.jmx.enable";
+    private static final String defaultJmx = "false";
+    private static final PropertiesFromFile propertiesFromFile = BootstrapTimings.time(BootstrapTimings.Phase.PROPERTIES_FILE_LOAD, PropertiesFromFile::new);
 
     public static String getRootPackage() {
         return getPropertyValue(rootKey, defaultRoot);
@@ -52,7 +69,7 @@ public class PropertiesWrapper {
     }
 
     public static int getMaxRandomizationDepth() {
-        return Integer.parseInt(getPropertyValue(maxRandomizationDepth, defaultMaxRandomizationDepth));
+        return parse(maxRandomizationDepth, defaultMaxRandomizationDepth, Integer::parseInt);
     }
 
     public static List<String> getAndroidCustomArrangers() {
@@ -63,6 +80,51 @@ public class PropertiesWrapper {
                 .collect(Collectors.toList());
     }
 
+    public static boolean getProfileEnabled() {
+        return Boolean.parseBoolean(getPropertyValue(profileKey, defaultProfile));
+    }
+
+    public static String getProfileFile() {
+        return getPropertyValue(profileFileKey, defaultProfileFile);
+    }
+
+    public static double getSomeMatchingWarningThreshold() {
+        return parse(someMatchingWarningThresholdKey, defaultSomeMatchingWarningThreshold, Double::parseDouble);
+    }
+
+    public static boolean getBootstrapSummary() {
+        return Boolean.parseBoolean(getPropertyValue(bootstrapSummaryKey, defaultBootstrapSummary));
+    }
+
+    public static String getScanCacheFile() {
+        return getPropertyValue(scanCacheFileKey, defaultScanCacheFile).trim();
+    }
+
+    public static boolean getWarmUpEnabled() {
+        return Boolean.parseBoolean(getPropertyValue(warmUpKey, defaultWarmUp));
+    }
+
+    public static boolean getIndexEnabled() {
+        return Boolean.parseBoolean(getPropertyValue(indexKey, defaultIndex));
+    }
+
+    public static boolean getJmxEnabled() {
+        return Boolean.parseBoolean(getPropertyValue(jmxKey, defaultJmx));
+    }
+
+    /**
+     * A malformed value breaks only the feature that reads it: the default is used instead and the problem is reported.
+     */
+    private static <T> T parse(String key, String defaultValue, Function<String, T> parser) {
+        String value = getPropertyValue(key, defaultValue);
+        try {
+            return parser.apply(value);
+        } catch (NumberFormatException e) {
+            System.err.println("Invalid value of " + key + ": '" + value + "', the default " + defaultValue + " will be used");
+            return parser.apply(defaultValue);
+        }
+    }
+
     private static String getPropertyValue(String key, String defaultValue) {
         String value = System.getProperties().getProperty(key);
         if (value == null) {
@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event emitted for every {@link com.ocadotechnology.gembus.test.rearranger.Rearranger#copy} call. Disabled by default.
+ */
+@Name("com.ocadotechnology.gembus.test.RearrangerCopy")
+@Label("Rearranger Copy")
+@Category("Test Arranger")
+@Description("Copy of an instance with overridden fields")
+@Enabled(false)
+@StackTrace(false)
+class RearrangerCopyEvent extends jdk.jfr.Event {
+
+    @Label("Target Type")
+    Class<?> targetType;
+
+    @Label("Overridden Fields")
+    String overriddenFields;
+}
@@ -16,35 +16,64 @@
 package com.ocadotechnology.gembus.test;
 
 import io.github.classgraph.ClassGraph;
+import io.github.classgraph.ScanResult;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.Field;
 import java.lang.reflect.Modifier;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 class ReflectionHelper {
 
     Map<Class<?>, CustomArranger<?>> customArrangers;
-    private final List<Constructor<?>> arrangerConstructors;
+    private final List<Supplier<CustomArranger<?>>> arrangerFactories;
 
     ReflectionHelper() {
-        Stream<Class<CustomArranger>> customArrangerClasses;
         String vmName = System.getProperty("java.vm.name");
         if ("Dalvik".equals(vmName)) {
-            customArrangerClasses = AndroidReflectionHelper.findCustomArrangerClasses();
+            arrangerFactories = BootstrapTimings.time(BootstrapTimings.Phase.CLASSPATH_SCAN, this::findAndroidArrangerFactories);
         } else {
-            customArrangerClasses = getCustomArrangerClasses();
+            arrangerFactories = reflectiveFactories(BootstrapTimings.time(BootstrapTimings.Phase.CLASSPATH_SCAN, ReflectionHelper::getCustomArrangerClasses));
         }
-        arrangerConstructors = customArrangerClasses
+    }
+
+    /**
+     * The generated provider creates the arrangers without reflection,
+     * the ones listed in {@code arranger.android.customArrangers} and missing from it are created reflectively.
+     */
+    private List<Supplier<CustomArranger<?>>> findAndroidArrangerFactories() {
+        Map<Class<?>, Supplier<CustomArranger<?>>> generated = AndroidReflectionHelper.findGeneratedCustomArrangers(ReflectionHelper.class.getClassLoader(),
+                ArrangerSettings.current().getRootPackage());
+        List<Supplier<CustomArranger<?>>> result = generated.entrySet().stream()
+                .map(entry -> (Supplier<CustomArranger<?>>) () -> createCustomArranger(entry.getKey(), entry.getValue()))
+                .collect(Collectors.toCollection(ArrayList::new));
+        result.addAll(reflectiveFactories(AndroidReflectionHelper.findCustomArrangerClasses().filter(clazz -> !generated.containsKey(clazz))));
+        return result;
+    }
+
+    private List<Supplier<CustomArranger<?>>> reflectiveFactories(Stream<Class<CustomArranger>> customArrangerClasses) {
+        return customArrangerClasses
                 .filter(clazz -> isNotAbstract(clazz))
                 .map(clazz -> extractConstructor(clazz))
                 .filter(constructor -> constructor.isPresent())
-                .map(constructor -> constructor.get())
+                .map(constructor -> (Supplier<CustomArranger<?>>) () -> createCustomArranger(constructor.get()))
                 .collect(Collectors.toList());
     }
 
@@ -65,8 +94,12 @@ class ReflectionHelper {
     }
 
     Map<Class<?>, CustomArranger<?>> createAllCustomArrangers() {
-        return customArrangers = arrangerConstructors.stream()
-                .map(constructor -> createCustomArranger(constructor))
+        return BootstrapTimings.time(BootstrapTimings.Phase.CUSTOM_ARRANGER_CONSTRUCTION, this::createCustomArrangersByType);
+    }
+
+    private Map<Class<?>, CustomArranger<?>> createCustomArrangersByType() {
+        return customArrangers = arrangerFactories.stream()
+                .map(Supplier::get)
                 .filter(customArranger -> customArranger != null)
                 .collect(Collectors.toMap(
                         customArranger -> customArranger.type,
@@ -78,13 +111,110 @@ class ReflectionHelper {
     }
 
     private static Stream<Class<CustomArranger>> getCustomArrangerClasses() {
+        return indexedCustomArrangerClasses(ReflectionHelper.class.getClassLoader(), ArrangerSettings.current())
+                .orElseGet(ReflectionHelper::scanForCustomArrangerClassesWithCache);
+    }
+
+    /**
+     * The index replaces the scan only with {@code arranger.index.enable}, as the arrangers compiled without
+     * {@link CustomArrangerIndexProcessor} (e.g. in Kotlin or in another module) are not listed in it and would be silently missing.
+     */
+    static Optional<Stream<Class<CustomArranger>>> indexedCustomArrangerClasses(ClassLoader classLoader, ArrangerSettings settings) {
+        if (!settings.getIndexEnabled()) {
+            return Optional.empty();
+        }
+        return loadIndexedCustomArrangerClasses(classLoader, settings.getRootPackage());
+    }
+
+    private static Stream<Class<CustomArranger>> scanForCustomArrangerClassesWithCache() {
+        String cacheFile = ArrangerSettings.current().getScanCacheFile();
+        if (cacheFile.isEmpty()) {
+            return scanForCustomArrangerClasses();
+        }
+        CustomArrangerScanCache cache = new CustomArrangerScanCache(Path.of(cacheFile),
+                CustomArrangerScanCache.fingerprint(System.getProperty("java.class.path", ""), ArrangerSettings.current().getRootPackage()));
+        Optional<List<Class<CustomArranger>>> cached = cache.read(ReflectionHelper.class.getClassLoader());
+        if (cached.isPresent()) {
+            return cached.get().stream();
+        }
+        List<Class<CustomArranger>> scanned = scanForCustomArrangerClasses().collect(Collectors.toList());
+        cache.write(scanned.stream().map(Class::getName).collect(Collectors.toList()));
+        return scanned.stream();
+    }
+
+    /**
+     * Loads the custom arrangers listed in the {@link CustomArrangerIndexProcessor} index files.
+     * Empty when there is no index on the classpath, or when no index lists an arranger in the root package,
+     * e.g. the only index comes from a dependency, as then the project arrangers have not been indexed.
+     */
+    static Optional<Stream<Class<CustomArranger>>> loadIndexedCustomArrangerClasses(ClassLoader classLoader, String rootPackage) {
+        List<URL> indexes;
+        try {
+            indexes = Collections.list(classLoader.getResources(CustomArrangerIndexProcessor.INDEX_RESOURCE));
+        } catch (IOException e) {
+            System.err.println("Cannot read " + CustomArrangerIndexProcessor.INDEX_RESOURCE + ", falling back to classpath scanning");
+            return Optional.empty();
+        }
+        if (indexes.isEmpty()) {
+            return Optional.empty();
+        }
+        Set<String> classNames = new LinkedHashSet<>();
+        for (URL index : indexes) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                reader.lines()
+                        .map(String::trim)
+                        .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                        .filter(className -> isInPackage(className, rootPackage))
+                        .forEach(classNames::add);
+            } catch (IOException e) {
+                System.err.println("Cannot read " + index + ", falling back to classpath scanning");
+                return Optional.empty();
+            }
+        }
+        if (classNames.isEmpty()) {
+            return Optional.empty();
+        }
+        return Optional.of(classNames.stream()
+                .map(className -> loadCustomArrangerClass(classLoader, className))
+                .filter(Objects::nonNull));
+    }
+
+    static boolean isInPackage(String className, String rootPackage) {
+        return rootPackage == null || rootPackage.isEmpty() || className.startsWith(rootPackage + ".");
+    }
+
+    private static Class<CustomArranger> loadCustomArrangerClass(ClassLoader classLoader, String className) {
+        try {
+            Class<?> aClass = Class.forName(className, false, classLoader);
+            if (CustomArranger.class.isAssignableFrom(aClass)) {
+                return (Class<CustomArranger>) aClass;
+            }
+            System.err.println(className + " is not a subclass of CustomArranger, will not be used as custom arranger");
+        } catch (ClassNotFoundException | LinkageError e) {
+            System.err.println(className + " not found, will not be used as custom arranger");
+        }
+        return null;
+    }
+
+    private static Stream<Class<CustomArranger>> scanForCustomArrangerClasses() {
+        try (ScanResult scanResult = customArrangersScan(ArrangerSettings.current().getRootPackage()).scan()) {
+            return scanResult.getSubclasses(CustomArranger.class.getName())
+                    .loadClasses(CustomArranger.class, true)
+                    .stream()
+                    .collect(Collectors.toList())
+                    .stream();
+        }
+    }
+
+    /**
+     * Only the subclass relationship is needed to find the custom arrangers,
+     * so fields, methods and annotations are not parsed.
+     */
+    static ClassGraph customArrangersScan(String rootPackage) {
         return new ClassGraph()
-                .acceptPackages(PropertiesWrapper.getRootPackage())
-                .enableAllInfo()
-                .scan()
-                .getSubclasses(CustomArranger.class.getName())
-                .loadClasses(CustomArranger.class, true)
-                .stream();
+                .acceptPackages(rootPackage)
+                .enableClassInfo()
+                .ignoreClassVisibility();
     }
 
     private CustomArranger<?> createCustomArranger(Constructor<?> constructor) {
@@ -97,6 +227,15 @@ class ReflectionHelper {
         }
     }
 
+    private CustomArranger<?> createCustomArranger(Class<?> arrangerClass, Supplier<CustomArranger<?>> factory) {
+        try {
+            return factory.get();
+        } catch (Exception e) {
+            System.err.println("Cannot create arranger for " + arrangerClass.getName());
+            return null;
+        }
+    }
+
     private boolean isNotAbstract(Class<CustomArranger> clazz) {
         return !Modifier.isAbstract(clazz.getModifiers());
     }
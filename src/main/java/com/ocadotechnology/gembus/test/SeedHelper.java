@@ -21,7 +21,7 @@ public class SeedHelper {
 
     static long calculateSeed() {
         long seed = EasyRandomParameters.DEFAULT_SEED;
-        if (PropertiesWrapper.getRandomSeedEnabled()) {
+        if (ArrangerSettings.current().getRandomSeedEnabled()) {
             seed = System.nanoTime();
         }
         return seed;
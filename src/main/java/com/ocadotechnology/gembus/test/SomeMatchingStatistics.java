@@ -0,0 +1,191 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Acceptance rates of {@link Arranger#someMatching(Class, Predicate, String...)} per call site, i.e. per requested type
+ * and predicate class (every lambda expression has its own class).
+ * A warning is printed once for a call site that accepts less than {@code arranger.someMatching.warningThreshold}
+ * (0.05 by default) of the generated instances.
+ */
+public final class SomeMatchingStatistics {
+
+    static final int MIN_TRIES_TO_WARN = 50;
+    private static final String[] BUCKETS = {"1", "2", "3-4", "5-8", "9-16", "17-32", "33-64", "65-128", "129+", "failed"};
+    private static final Map<Key, CallSite> callSites = new ConcurrentHashMap<>();
+
+    private SomeMatchingStatistics() {
+    }
+
+    /**
+     * @return the call sites ordered by the number of generated instances, the most expensive first
+     */
+    public static List<CallSite> get() {
+        List<CallSite> result = new ArrayList<>(callSites.values());
+        result.sort(Comparator.comparingLong(CallSite::getTries).reversed());
+        return Collections.unmodifiableList(result);
+    }
+
+    static void record(Class<?> type, Predicate<?> predicate, int tries, boolean accepted) {
+        CallSite callSite = callSites.computeIfAbsent(new Key(type, predicate.getClass()), key -> new CallSite(type, predicateName(predicate.getClass())));
+        callSite.record(tries, accepted);
+        if (callSite.shouldWarn(ArrangerSettings.current().getSomeMatchingWarningThreshold())) {
+            System.err.println(String.format(Locale.ROOT,
+                    "Test Arranger: someMatching for %s with %s accepts %.1f%% of generated instances (%d calls, %d tries), consider a custom arranger or overrides instead",
+                    type.getName(), callSite.predicate, callSite.getAcceptanceRate() * 100, callSite.getCalls(), callSite.getTries()));
+        }
+    }
+
+    private static String predicateName(Class<?> predicateClass) {
+        String name = predicateClass.getName();
+        int hiddenClassSuffix = name.indexOf('/');
+        return hiddenClassSuffix < 0 ? name : name.substring(0, hiddenClassSuffix);
+    }
+
+    static int bucketOf(int tries, boolean accepted) {
+        if (!accepted) {
+            return BUCKETS.length - 1;
+        }
+        int bucket = 32 - Integer.numberOfLeadingZeros(tries - 1);
+        return Math.min(bucket, BUCKETS.length - 2);
+    }
+
+    /**
+     * Statistics of a single {@code someMatching} call site.
+     */
+    public static final class CallSite {
+        private final Class<?> type;
+        private final String predicate;
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder tries = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final AtomicLongArray histogram = new AtomicLongArray(BUCKETS.length);
+        private final AtomicBoolean warned = new AtomicBoolean();
+
+        private CallSite(Class<?> type, String predicate) {
+            this.type = type;
+            this.predicate = predicate;
+        }
+
+        private void record(int callTries, boolean accepted) {
+            calls.increment();
+            tries.add(callTries);
+            if (!accepted) {
+                failures.increment();
+            }
+            histogram.incrementAndGet(bucketOf(callTries, accepted));
+        }
+
+        private boolean shouldWarn(double threshold) {
+            return getTries() >= MIN_TRIES_TO_WARN && getAcceptanceRate() < threshold && warned.compareAndSet(false, true);
+        }
+
+        public Class<?> getType() {
+            return type;
+        }
+
+        /**
+         * @return the name of the predicate class, for lambdas it identifies the place where the lambda is defined
+         */
+        public String getPredicate() {
+            return predicate;
+        }
+
+        public long getCalls() {
+            return calls.sum();
+        }
+
+        /**
+         * @return the number of instances generated for this call site
+         */
+        public long getTries() {
+            return tries.sum();
+        }
+
+        /**
+         * @return the number of calls that ended with {@code CannotSatisfyPredicateException}
+         */
+        public long getFailures() {
+            return failures.sum();
+        }
+
+        /**
+         * @return the ratio of accepted instances to all generated instances
+         */
+        public double getAcceptanceRate() {
+            long allTries = getTries();
+            return allTries == 0 ? 0 : (double) (getCalls() - getFailures()) / allTries;
+        }
+
+        /**
+         * @return the number of calls by the number of instances generated in the call, the failed calls are counted separately
+         */
+        public Map<String, Long> getTriesHistogram() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            for (int bucket = 0; bucket < BUCKETS.length; bucket++) {
+                result.put(BUCKETS[bucket], histogram.get(bucket));
+            }
+            return result;
+        }
+
+        @Override
+        public String toString() {
+            return String.format(Locale.ROOT, "%s with %s: calls=%d, tries=%d, failures=%d, acceptanceRate=%.3f, tries histogram=%s",
+                    type.getName(), predicate, getCalls(), getTries(), getFailures(), getAcceptanceRate(), getTriesHistogram());
+        }
+    }
+
+    private static final class Key {
+        private final Class<?> type;
+        private final Class<?> predicateClass;
+
+        Key(Class<?> type, Class<?> predicateClass) {
+            this.type = type;
+            this.predicateClass = predicateClass;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return type == key.type && predicateClass == key.predicateClass;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(type, predicateClass);
+        }
+    }
+}
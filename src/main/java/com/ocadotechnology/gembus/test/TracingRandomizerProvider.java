@@ -0,0 +1,95 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.jeasy.random.api.ContextAwareRandomizer;
+import org.jeasy.random.api.Randomizer;
+import org.jeasy.random.api.RandomizerContext;
+import org.jeasy.random.api.RandomizerProvider;
+import org.jeasy.random.api.RandomizerRegistry;
+
+import java.lang.reflect.Field;
+import java.util.Set;
+
+/**
+ * Delegates to the {@link CachingRandomizerProvider} and wraps the returned randomizers while {@link Arranger#explain}
+ * or {@link Arranger#measure} is running in the current thread.
+ */
+class TracingRandomizerProvider implements RandomizerProvider {
+
+    private final RandomizerProvider delegate;
+
+    private TracingRandomizerProvider(RandomizerProvider delegate) {
+        this.delegate = delegate;
+    }
+
+    static RandomizerProvider create() {
+        return new TracingRandomizerProvider(new CachingRandomizerProvider());
+    }
+
+    @Override
+    public Randomizer<?> getRandomizerByField(Field field, RandomizerContext context) {
+        return traced(delegate.getRandomizerByField(field, context), field.getName(), field.getType(), context);
+    }
+
+    @Override
+    public <T> Randomizer<T> getRandomizerByType(Class<T> type, RandomizerContext context) {
+        return traced(delegate.getRandomizerByType(type, context), null, type, context);
+    }
+
+    @Override
+    public void setRandomizerRegistries(Set<RandomizerRegistry> randomizerRegistries) {
+        delegate.setRandomizerRegistries(randomizerRegistries);
+    }
+
+    private static <T> Randomizer<T> traced(Randomizer<T> randomizer, String field, Class<?> type, RandomizerContext context) {
+        if (randomizer == null || !(GenerationTracer.isTracing() || GenerationCounter.isCounting())) {
+            return randomizer;
+        }
+        return new TracedRandomizer<>(randomizer, field, type, context);
+    }
+
+    private static class TracedRandomizer<T> implements ContextAwareRandomizer<T> {
+        private final Randomizer<T> randomizer;
+        private final String field;
+        private final Class<?> type;
+        private RandomizerContext context;
+
+        TracedRandomizer(Randomizer<T> randomizer, String field, Class<?> type, RandomizerContext context) {
+            this.randomizer = randomizer;
+            this.field = field;
+            this.type = type;
+            this.context = context;
+        }
+
+        @Override
+        public void setRandomizerContext(RandomizerContext context) {
+            this.context = context;
+            if (randomizer instanceof ContextAwareRandomizer) {
+                ((ContextAwareRandomizer<T>) randomizer).setRandomizerContext(context);
+            }
+        }
+
+        @Override
+        public T getRandomValue() {
+            T value = GenerationTracer.traceRandomizer(randomizer, field, type, context);
+            if (!type.isPrimitive() && !(randomizer instanceof EnhancedRandom.CustomArrangerRandomizer)) {
+                GenerationCounter.instanceCreated(value);
+            }
+            return value;
+        }
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test.internal;
+
+import java.util.Collection;
+import java.util.function.Supplier;
+
+/**
+ * Gives {@link com.ocadotechnology.gembus.test.rearranger.Rearranger} access to the package-private events and statistics
+ * of {@code com.ocadotechnology.gembus.test}, which register their implementation here when initialized.
+ * Not a part of the API, it may change without notice.
+ */
+public final class InternalAccess {
+
+    private static final String ARRANGER_EVENTS = "com.ocadotechnology.gembus.test.ArrangerEvents";
+
+    private static volatile CopyRecorder copyRecorder;
+
+    private InternalAccess() {
+    }
+
+    public interface CopyRecorder {
+        <T> T recordCopy(Class<?> type, Collection<String> overriddenFields, Supplier<T> copy);
+    }
+
+    public static void setCopyRecorder(CopyRecorder recorder) {
+        copyRecorder = recorder;
+    }
+
+    public static CopyRecorder copyRecorder() {
+        if (copyRecorder == null) {
+            initialize(ARRANGER_EVENTS);
+        }
+        return copyRecorder;
+    }
+
+    private static void initialize(String className) {
+        try {
+            Class.forName(className, true, InternalAccess.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
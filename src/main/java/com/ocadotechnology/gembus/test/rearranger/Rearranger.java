@@ -15,6 +15,8 @@
  */
 package com.ocadotechnology.gembus.test.rearranger;
 
+import com.ocadotechnology.gembus.test.internal.InternalAccess;
+
 import java.util.Map;
 import java.util.Set;
 import java.util.function.Supplier;
@@ -68,6 +70,10 @@ public class Rearranger {
      * @throws RuntimeException         wrapping reflective failure encountered during copying
      */
     public static <T> T copy(T object, Map<String, Supplier<?>> overrides) {
+        return InternalAccess.copyRecorder().recordCopy(object.getClass(), overrides.keySet(), () -> copyWithoutEvent(object, overrides));
+    }
+
+    private static <T> T copyWithoutEvent(T object, Map<String, Supplier<?>> overrides) {
         try {
             if (object.getClass().isRecord()) {
                 return RecordRearranger.copyRecord(object, overrides);
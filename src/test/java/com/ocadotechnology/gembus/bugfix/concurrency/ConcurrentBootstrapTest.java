@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.bugfix.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ConcurrentBootstrapTest {
+
+    private static final int THREADS = 16;
+
+    @Test
+    void concurrentFirstCallsShouldInstantiateCustomArrangersOnce() throws Exception {
+        //given
+        try (URLClassLoader freshClassLoader = new URLClassLoader(classPath(), ClassLoader.getPlatformClassLoader())) {
+            Class<?> race = freshClassLoader.loadClass(FirstCallRace.class.getName());
+
+            //when
+            int instantiations = (int) race.getMethod("run", int.class).invoke(null, THREADS);
+
+            //then
+            // once for some() and once for someSimplified()
+            assertThat(instantiations).isEqualTo(2);
+        }
+    }
+
+    private static URL[] classPath() {
+        return Arrays.stream(System.getProperty("java.class.path").split(File.pathSeparator))
+                .map(entry -> {
+                    try {
+                        return Path.of(entry).toUri().toURL();
+                    } catch (MalformedURLException e) {
+                        throw new IllegalStateException(e);
+                    }
+                })
+                .toArray(URL[]::new);
+    }
+}
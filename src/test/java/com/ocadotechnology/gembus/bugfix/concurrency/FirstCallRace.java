@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.bugfix.concurrency;
+
+import com.ocadotechnology.gembus.test.Arranger;
+import com.ocadotechnology.gembus.test.CustomArranger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loaded by {@link ConcurrentBootstrapTest} in a fresh class loader, so that the calls below are the very first Arranger calls.
+ */
+public class FirstCallRace {
+
+    public static int run(int threads) throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> callers = new ArrayList<>();
+        List<Throwable> failures = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            boolean simplified = i % 2 == 0;
+            Thread caller = new Thread(() -> {
+                try {
+                    start.await();
+                    if (simplified) {
+                        Arranger.someSimplified(CountedStruct.class);
+                    } else {
+                        Arranger.some(CountedStruct.class);
+                    }
+                } catch (Throwable e) {
+                    synchronized (failures) {
+                        failures.add(e);
+                    }
+                }
+            });
+            caller.setContextClassLoader(FirstCallRace.class.getClassLoader());
+            caller.start();
+            callers.add(caller);
+        }
+        start.countDown();
+        for (Thread caller : callers) {
+            caller.join();
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Concurrent first call failed", failures.get(0));
+        }
+        return CountedStructArranger.instantiations.get();
+    }
+}
+
+class CountedStruct {
+    String name;
+}
+
+class CountedStructArranger extends CustomArranger<CountedStruct> {
+    static final AtomicInteger instantiations = new AtomicInteger();
+
+    CountedStructArranger() {
+        instantiations.incrementAndGet();
+    }
+}
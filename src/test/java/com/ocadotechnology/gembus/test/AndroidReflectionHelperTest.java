@@ -15,6 +15,7 @@
  */
 package com.ocadotechnology.gembus.test;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -25,6 +26,12 @@ import static org.junit.jupiter.api.Assertions.*;
 
 class AndroidReflectionHelperTest {
 
+    @AfterEach
+    void cleanupProperties() {
+        System.getProperties().remove(PropertiesWrapperTest.androidCustomArrangers);
+        ArrangerSettings.reload();
+    }
+
     @Test
     void shouldFindCustomArranger_whenValidClassesAreGivenInProperties() {
         //given
@@ -32,6 +39,7 @@ class AndroidReflectionHelperTest {
         Class customArranger2 = com.ocadotechnology.gembus.test.ParentArranger.class;
         String propertyValue = customArranger1.getName() + "," + customArranger2.getName();
         System.setProperty(PropertiesWrapperTest.androidCustomArrangers, propertyValue);
+        ArrangerSettings.reload();
 
         //when
         List<Class<CustomArranger>> actual = AndroidReflectionHelper.findCustomArrangerClasses().toList();
@@ -47,6 +55,7 @@ class AndroidReflectionHelperTest {
         //given
         String propertyValue = Child.class.getName();
         System.setProperty(PropertiesWrapperTest.androidCustomArrangers, propertyValue);
+        ArrangerSettings.reload();
 
         //when
         List<Class<CustomArranger>> actual = AndroidReflectionHelper.findCustomArrangerClasses().toList();
@@ -59,6 +68,7 @@ class AndroidReflectionHelperTest {
     void shouldNotReturnClass_whenGivenNameIsNotValidClassName() {
         //given
         System.setProperty(PropertiesWrapperTest.androidCustomArrangers, someString());
+        ArrangerSettings.reload();
 
         //when
         List<Class<CustomArranger>> actual = AndroidReflectionHelper.findCustomArrangerClasses().toList();
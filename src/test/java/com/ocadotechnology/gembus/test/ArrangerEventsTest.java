@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import com.ocadotechnology.gembus.test.rearranger.Rearranger;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArrangerEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldEmitGenerationEventsWhenEnabled() throws Exception {
+        //given
+        Path dump = tempDir.resolve("generation.jfr");
+
+        //when
+        try (Recording recording = new Recording()) {
+            recording.enable("com.ocadotechnology.gembus.test.ArrangerGeneration");
+            recording.start();
+            Arranger.some(EventParent.class, "name");
+            Arranger.someObjects(EventChild.class, 3).collect(Collectors.toList());
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        //then
+        List<RecordedEvent> events = RecordingFile.readAllEvents(dump);
+        RecordedEvent parent = eventFor(events, EventParent.class);
+        assertThat(parent.getString("excludedFields")).isEqualTo("name");
+        assertThat(parent.getBoolean("customArranger")).isFalse();
+        assertThat(parent.getInt("objectCount")).isGreaterThanOrEqualTo(2);
+        assertThat(parent.getInt("depth")).isGreaterThanOrEqualTo(1);
+        assertThat(events.stream().filter(event -> isFor(event, EventChild.class))).hasSizeGreaterThanOrEqualTo(3);
+    }
+
+    @Test
+    void shouldEmitCopyEventsWhenEnabled() throws Exception {
+        //given
+        Path dump = tempDir.resolve("copy.jfr");
+        EventChild original = Arranger.some(EventChild.class);
+
+        //when
+        try (Recording recording = new Recording()) {
+            recording.enable("com.ocadotechnology.gembus.test.RearrangerCopy");
+            recording.start();
+            Rearranger.copy(original, Map.<String, Supplier<?>>of("value", () -> 7L));
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        //then
+        RecordedEvent copy = eventFor(RecordingFile.readAllEvents(dump), EventChild.class);
+        assertThat(copy.getString("overriddenFields")).isEqualTo("value");
+    }
+
+    @Test
+    void shouldNotEmitEventsByDefault() throws Exception {
+        //given
+        Path dump = tempDir.resolve("default.jfr");
+
+        //when
+        try (Recording recording = new Recording()) {
+            recording.start();
+            Arranger.some(EventParent.class);
+            recording.stop();
+            recording.dump(dump);
+        }
+
+        //then
+        assertThat(RecordingFile.readAllEvents(dump)).noneMatch(event -> event.getEventType().getName().startsWith("com.ocadotechnology"));
+    }
+
+    private static RecordedEvent eventFor(List<RecordedEvent> events, Class<?> type) {
+        return events.stream().filter(event -> isFor(event, type)).findFirst().orElseThrow();
+    }
+
+    private static boolean isFor(RecordedEvent event, Class<?> type) {
+        return type.getName().equals(event.getClass("targetType").getName());
+    }
+}
+
+class EventParent {
+    String name;
+    EventChild child;
+}
+
+class EventChild {
+    Long value;
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArrangerExplainTest {
+
+    @Test
+    void shouldTraceTheGeneratedObjectTree() {
+        //when
+        GenerationTrace<ExplainedOrder> trace = Arranger.explain(() -> Arranger.some(ExplainedOrder.class));
+
+        //then
+        assertThat(trace.getResult()).isNotNull();
+        GenerationTrace.Node order = trace.getNodes().get(0);
+        assertThat(order.getType()).isEqualTo(ExplainedOrder.class);
+        assertThat(order.getSource()).isEqualTo("new");
+        assertThat(order.getCount()).isEqualTo(1);
+        GenerationTrace.Node lines = childFor(order, "lines", ExplainedOrderLine.class);
+        assertThat(lines.getCount()).isEqualTo(trace.getResult().lines.size());
+        assertThat(childFor(lines, "product", String.class).getCount()).isEqualTo(lines.getCount());
+        assertThat(childFor(order, "id", Long.class).getSource()).isNotEmpty();
+        assertThat(order.getTotalNanos()).isLessThanOrEqualTo(trace.getTotalNanos());
+    }
+
+    @Test
+    void shouldAttachCustomArrangerGenerationToItsNode() {
+        //when
+        GenerationTrace<Parent> trace = Arranger.explain(() -> Arranger.some(Parent.class));
+
+        //then
+        GenerationTrace.Node parent = trace.getNodes().get(0);
+        assertThat(parent.getSource()).isEqualTo(ParentArranger.class.getSimpleName());
+        assertThat(parent.getChildren()).extracting(GenerationTrace.Node::getType).contains(Parent.class);
+    }
+
+    @Test
+    void shouldTraceRecordComponents() {
+        //when
+        GenerationTrace<ExplainedWithRecord> trace = Arranger.explain(() -> Arranger.some(ExplainedWithRecord.class));
+
+        //then
+        assertThat(trace.getResult().summary()).isNotNull();
+        assertThat(trace.toString()).contains("label: String", "total: Long");
+    }
+
+    @Test
+    void shouldExportCollapsedStacks() {
+        //when
+        GenerationTrace<ExplainedOrder> trace = Arranger.explain(() -> Arranger.some(ExplainedOrder.class));
+
+        //then
+        List<String> stacks = trace.toCollapsedStacks().lines().toList();
+        assertThat(stacks).allMatch(line -> line.matches("[^ ]+ \\d+"));
+        assertThat(stacks).anyMatch(line -> line.startsWith(ExplainedOrder.class.getName() + ";lines:" + ExplainedOrderLine.class.getName() + ";product:java.lang.String"));
+        assertThat(trace.toString()).contains("lines: ExplainedOrderLine [new]");
+    }
+
+    @Test
+    void shouldNotTraceOutsideOfExplain() {
+        //given
+        Arranger.explain(() -> Arranger.some(ExplainedOrder.class));
+
+        //when
+        boolean tracing = GenerationTracer.isTracing();
+
+        //then
+        assertThat(tracing).isFalse();
+    }
+
+    private static GenerationTrace.Node childFor(GenerationTrace.Node node, String field, Class<?> type) {
+        return node.getChildren().stream()
+                .filter(child -> field.equals(child.getField()) && type.equals(child.getType()))
+                .findFirst()
+                .orElseThrow(() -> new AssertionError("No " + field + " in " + node.getChildren()));
+    }
+}
+
+class ExplainedOrder {
+    Long id;
+    List<ExplainedOrderLine> lines;
+}
+
+class ExplainedOrderLine {
+    String product;
+    Integer quantity;
+}
+
+record ExplainedSummary(String label, Long total) {
+}
+
+record ExplainedWithRecord(String name, ExplainedSummary summary) {
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArrangerMeasureTest {
+
+    @Test
+    void shouldCountObjectsCollectionsAndStrings() {
+        //when
+        GenerationMeasurement<MeasuredOrder> measurement = Arranger.measure(() -> Arranger.some(MeasuredOrder.class));
+
+        //then
+        MeasuredOrder order = measurement.getResult();
+        int lines = order.lines.size();
+        int tags = order.tags.size();
+        assertThat(measurement.getStrings()).as("name, products, tag keys, summary label").isEqualTo(1 + lines + tags + 1);
+        assertThat(measurement.getCollections()).as("lines, tags, codes").isEqualTo(3);
+        assertThat(measurement.getObjects()).as("order, id, lines with quantities, tag values, summary with total").isEqualTo(1 + 1 + lines * 2 + tags + 1 + 1);
+        assertThat(measurement.getEstimatedShallowBytes()).isGreaterThan(16L * (measurement.getObjects() + measurement.getStrings()));
+    }
+
+    @Test
+    void shouldMeasureOnlyTheGivenArrangement() {
+        //given
+        Arranger.measure(() -> Arranger.some(MeasuredOrder.class));
+
+        //when
+        GenerationMeasurement<String> measurement = Arranger.measure(() -> "not arranged");
+
+        //then
+        assertThat(measurement.getObjects()).isZero();
+        assertThat(measurement.getStrings()).isZero();
+        assertThat(GenerationCounter.isCounting()).isFalse();
+    }
+
+    @Test
+    void shouldEstimateShallowSizeForCompressedReferences() {
+        //when
+        long size = GenerationCounter.shallowSize(MeasuredLine.class);
+
+        //then
+        assertThat(size).isEqualTo(32);
+    }
+}
+
+class MeasuredOrder {
+    Long id;
+    String name;
+    List<MeasuredLine> lines;
+    Map<String, Long> tags;
+    int[] codes;
+    MeasuredSummary summary;
+}
+
+class MeasuredLine {
+    String product;
+    Integer quantity;
+    long price;
+}
+
+record MeasuredSummary(String label, Long total) {
+}
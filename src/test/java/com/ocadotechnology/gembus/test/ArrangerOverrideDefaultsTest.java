@@ -28,12 +28,14 @@ public class ArrangerOverrideDefaultsTest {
     @AfterEach
     public void cleanupProperties() {
          System.getProperties().remove(PropertiesWrapperTest.overrideKey);
+         ArrangerSettings.reload();
     }
 
     @Test
     void shouldOverrideDefaultsWhenOverrideDefaultsPropertyIsSet() {
         //given
         System.setProperty(PropertiesWrapperTest.overrideKey, "true");
+        ArrangerSettings.reload();
 
         //when
         //Arranger.some is initialized too early and the property won't affect it
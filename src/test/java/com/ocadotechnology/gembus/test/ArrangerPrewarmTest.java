@@ -0,0 +1,93 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArrangerPrewarmTest {
+
+    @Test
+    void prewarmShouldBuildTheEnginesOfTheCustomArrangersReachableFromTheGivenTypes() throws Exception {
+        //given
+        Arranger.warmUpAsync().get(1, TimeUnit.MINUTES);
+        final long builtBefore = ArrangerStatistics.instance.getEasyRandomInstancesBuilt();
+
+        //when
+        CompletableFuture<Void> prewarm = Arranger.prewarm(PrewarmedRoot.class, PrewarmedShape.class);
+        prewarm.get(1, TimeUnit.MINUTES);
+
+        //then
+        assertThat(prewarm).isCompleted();
+        assertThat(ArrangerStatistics.instance.getEasyRandomInstancesBuilt()).isEqualTo(builtBefore + 1);
+        assertThat(Arranger.prewarm(PrewarmedRoot.class).get(1, TimeUnit.MINUTES)).isNull();
+        assertThat(ArrangerStatistics.instance.getEasyRandomInstancesBuilt()).isEqualTo(builtBefore + 1);
+    }
+
+    @Test
+    void prewarmedTypesShouldBeArrangedAsUsual() throws Exception {
+        //given
+        Arranger.prewarm(PrewarmedRoot.class, PrewarmedShape.class).get(1, TimeUnit.MINUTES);
+
+        //when
+        PrewarmedRoot actual = Arranger.some(PrewarmedRoot.class);
+
+        //then
+        assertThat(actual.leaves).isNotEmpty().allSatisfy(leaf -> assertThat(leaf.label).startsWith(PrewarmedLeafArranger.PREFIX));
+        assertThat(actual.record.leaf().label).startsWith(PrewarmedLeafArranger.PREFIX);
+        assertThat(actual.shape).isNotNull();
+    }
+}
+
+class PrewarmedRoot {
+    String name;
+    List<PrewarmedLeaf> leaves;
+    PrewarmedRecord record;
+    PrewarmedShape shape;
+}
+
+record PrewarmedRecord(Long id, PrewarmedLeaf leaf) {
+}
+
+sealed interface PrewarmedShape permits PrewarmedSquare, PrewarmedCircle {
+}
+
+record PrewarmedSquare(Integer side) implements PrewarmedShape {
+}
+
+final class PrewarmedCircle implements PrewarmedShape {
+    Integer radius;
+}
+
+class PrewarmedLeaf {
+    String label;
+}
+
+class PrewarmedLeafArranger extends CustomArranger<PrewarmedLeaf> {
+    static final String PREFIX = "prewarmed-";
+
+    @Override
+    protected PrewarmedLeaf instance() {
+        PrewarmedLeaf result = enhancedRandom.nextObject(PrewarmedLeaf.class);
+        result.label = PREFIX + result.label;
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArrangerSettingsTest {
+
+    private static final String maxDepthKey = "arranger.maxRandomizationDepth";
+    private static final String warningThresholdKey = "arranger.someMatching.warningThreshold";
+
+    @AfterEach
+    void cleanupProperties() {
+        System.getProperties().remove(maxDepthKey);
+        System.getProperties().remove(warningThresholdKey);
+        ArrangerSettings.reload();
+    }
+
+    @Test
+    void shouldNotSeePropertyChanges_untilReloaded() {
+        //given
+        ArrangerSettings before = ArrangerSettings.current();
+        System.setProperty(maxDepthKey, String.valueOf(before.getMaxRandomizationDepth() + 1));
+
+        //when
+        ArrangerSettings actual = ArrangerSettings.current();
+
+        //then
+        assertThat(actual).isSameAs(before);
+        assertThat(actual.getMaxRandomizationDepth()).isEqualTo(before.getMaxRandomizationDepth());
+    }
+
+    @Test
+    void shouldResolvePropertiesAgain_whenReloaded() {
+        //given
+        System.setProperty(maxDepthKey, "7");
+
+        //when
+        ArrangerSettings actual = ArrangerSettings.reload();
+
+        //then
+        assertThat(actual.getMaxRandomizationDepth()).isEqualTo(7);
+        assertThat(ArrangerSettings.current()).isSameAs(actual);
+    }
+
+    @Test
+    void shouldUseDefaults_whenValuesAreMalformed() {
+        //given
+        System.setProperty(maxDepthKey, "deep");
+        System.setProperty(warningThresholdKey, "abc");
+
+        //when
+        ArrangerSettings actual = ArrangerSettings.reload();
+
+        //then
+        assertThat(actual.getMaxRandomizationDepth()).isEqualTo(4);
+        assertThat(actual.getSomeMatchingWarningThreshold()).isEqualTo(0.05);
+        assertThat(Arranger.some(Integer.class)).isNotNull();
+    }
+
+    @Test
+    void shouldResolveTheSameValuesAsPropertiesWrapper() {
+        //when
+        ArrangerSettings actual = ArrangerSettings.reload();
+
+        //then
+        assertThat(actual.getRootPackage()).isEqualTo(PropertiesWrapper.getRootPackage());
+        assertThat(actual.getCacheEnable()).isEqualTo(PropertiesWrapper.getCacheEnable());
+        assertThat(actual.getRandomSeedEnabled()).isEqualTo(PropertiesWrapper.getRandomSeedEnabled());
+        assertThat(actual.getOverrideDefaults()).isEqualTo(PropertiesWrapper.getOverrideDefaults());
+        assertThat(actual.getAndroidCustomArrangers()).isEqualTo(PropertiesWrapper.getAndroidCustomArrangers());
+        assertThat(actual.getSomeMatchingWarningThreshold()).isEqualTo(PropertiesWrapper.getSomeMatchingWarningThreshold());
+    }
+}
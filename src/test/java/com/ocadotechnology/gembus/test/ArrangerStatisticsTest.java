@@ -0,0 +1,111 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import com.ocadotechnology.gembus.test.rearranger.Rearranger;
+import org.junit.jupiter.api.Test;
+
+import javax.management.JMX;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ArrangerStatisticsTest {
+
+    private final ArrangerStatisticsMXBean statistics = ArrangerStatistics.instance;
+
+    @Test
+    void shouldCountExclusionCacheHitsAndMisses() {
+        //given
+        long hits = statistics.getExclusionCacheHits();
+        long misses = statistics.getExclusionCacheMisses();
+        long built = statistics.getEasyRandomInstancesBuilt();
+
+        //when
+        Arranger.some(StatisticsSubject.class, "name", "value");
+        Arranger.some(StatisticsSubject.class, "value", "name");
+
+        //then
+        assertThat(statistics.getExclusionCacheMisses()).isBetween(misses, misses + 1);
+        assertThat(statistics.getExclusionCacheHits()).isGreaterThanOrEqualTo(hits + 1);
+        assertThat(statistics.getEasyRandomInstancesBuilt()).isEqualTo(built + statistics.getExclusionCacheMisses() - misses);
+    }
+
+    @Test
+    void shouldCountSomeMatchingRetriesAndFailures() {
+        //given
+        long retries = statistics.getSomeMatchingRetries();
+        long failures = statistics.getSomeMatchingFailures();
+
+        //when
+        assertThatThrownBy(() -> Arranger.someMatching(StatisticsSubject.class, subject -> false))
+                .isInstanceOf(Arranger.CannotSatisfyPredicateException.class);
+
+        //then
+        assertThat(statistics.getSomeMatchingRetries()).isGreaterThanOrEqualTo(retries + 250);
+        assertThat(statistics.getSomeMatchingFailures()).isEqualTo(failures + 1);
+    }
+
+    @Test
+    void shouldCountRearrangerCopiesAndGenerationTime() {
+        //given
+        long copies = statistics.getRearrangerCopies();
+        StatisticsSubject original = Arranger.some(StatisticsSubject.class);
+
+        //when
+        Rearranger.copy(original, Map.of());
+
+        //then
+        assertThat(statistics.getRearrangerCopies()).isEqualTo(copies + 1);
+        assertThat(statistics.getGenerationTimeMillis()).isNotNegative();
+    }
+
+    @Test
+    void shouldCountCustomArrangerInvocationsByType() {
+        //given
+        long invocations = statistics.getCustomArrangerInvocations().getOrDefault(Parent.class.getName(), 0L);
+
+        //when
+        Arranger.some(Parent.class);
+
+        //then
+        assertThat(statistics.getCustomArrangerInvocations()).containsKey(Parent.class.getName());
+        assertThat(statistics.getCustomArrangerInvocations().get(Parent.class.getName())).isGreaterThan(invocations);
+    }
+
+    @Test
+    void shouldExposeStatisticsInPlatformMBeanServer_whenRegistered() throws Exception {
+        //given
+        long copies = statistics.getRearrangerCopies();
+        Rearranger.copy(Arranger.some(StatisticsSubject.class), Map.of());
+
+        //when
+        ArrangerStatistics.register();
+
+        //then
+        ArrangerStatisticsMXBean actual = JMX.newMXBeanProxy(ManagementFactory.getPlatformMBeanServer(),
+                new ObjectName(ArrangerStatistics.OBJECT_NAME), ArrangerStatisticsMXBean.class);
+        assertThat(actual.getRearrangerCopies()).isGreaterThanOrEqualTo(copies + 1);
+    }
+}
+
+class StatisticsSubject {
+    String name;
+    Long value;
+}
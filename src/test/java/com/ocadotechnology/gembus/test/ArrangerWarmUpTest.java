@@ -0,0 +1,61 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ArrangerWarmUpTest {
+
+    private static final String warmUpKey = "arranger.warmUp.enable";
+
+    @AfterEach
+    void cleanupProperties() {
+        System.getProperties().remove(warmUpKey);
+    }
+
+    @Test
+    void warmUpShouldCompleteOnceArrangerIsInitialized() throws Exception {
+        //given
+        CompletableFuture<Void> warmUp = Arranger.warmUpAsync();
+
+        //when
+        warmUp.get(1, TimeUnit.MINUTES);
+
+        //then
+        assertThat(warmUp).isCompleted();
+        assertThat(Arranger.warmUpAsync()).isSameAs(warmUp);
+        assertThat(BootstrapTimings.get()).containsKey(BootstrapTimings.Phase.ARRANGER_INITIALIZATION);
+    }
+
+    @Test
+    void launcherSessionListenerShouldStartTheWarmUp_whenEnabled() throws Exception {
+        //given
+        System.setProperty(warmUpKey, "true");
+
+        //when
+        new ArrangerWarmUpLauncherSessionListener().launcherSessionOpened(null);
+
+        //then
+        assertThat(Arranger.warmUpAsync().get(1, TimeUnit.MINUTES)).isNull();
+        assertThat(Arranger.some(String.class)).isNotEmpty();
+    }
+}
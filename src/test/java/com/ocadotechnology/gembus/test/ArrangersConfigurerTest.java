@@ -16,6 +16,7 @@
 package com.ocadotechnology.gembus.test;
 
 import org.jeasy.random.EasyRandomParameters;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.Test;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -25,6 +26,12 @@ public class ArrangersConfigurerTest {
 
     final static String hardcoded_string = "hardcoded string";
 
+    @AfterEach
+    void cleanupProperties() {
+        System.getProperties().remove("arranger.randomseed");
+        ArrangerSettings.reload();
+    }
+
     @Test
     public void customArrangerShouldBeRegistered_and_usedForNestedClass() {
         //given
@@ -41,6 +48,7 @@ public class ArrangersConfigurerTest {
     void should_useTheHardcodedSeed_when_randomSeedIsNotEnabled() {
         //given
         System.setProperty("arranger.randomseed", "false");
+        ArrangerSettings.reload();
 
         //when
         EasyRandomParameters actual = ArrangersConfigurer.getEasyRandomDefaultParameters();
@@ -53,6 +61,7 @@ public class ArrangersConfigurerTest {
     void should_useRandomSeed_when_randomSeedIsEnabled() {
         //given
         System.setProperty("arranger.randomseed", "true");
+        ArrangerSettings.reload();
 
         //when
         EasyRandomParameters actual1 = ArrangersConfigurer.getEasyRandomDefaultParameters();
@@ -68,6 +77,7 @@ public class ArrangersConfigurerTest {
     void should_useTheHardcodedSeedForSimplified_when_randomSeedIsNotEnabled() {
         //given
         System.setProperty("arranger.randomseed", "false");
+        ArrangerSettings.reload();
 
         //when
         EasyRandomParameters actual = ArrangersConfigurer.getEasyRandomSimplifiedParameters();
@@ -80,6 +90,7 @@ public class ArrangersConfigurerTest {
     void should_useRandomSeedForSimplified_when_randomSeedIsEnabled() {
         //given
         System.setProperty("arranger.randomseed", "true");
+        ArrangerSettings.reload();
 
         //when
         EasyRandomParameters actual1 = ArrangersConfigurer.getEasyRandomSimplifiedParameters();
@@ -0,0 +1,114 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BootstrapTimingsTest {
+
+    @Test
+    void shouldRecordTheBootstrapPhasesOfArranger() {
+        //given
+        Arranger.some(String.class);
+
+        //when
+        Map<BootstrapTimings.Phase, Duration> actual = BootstrapTimings.get();
+
+        //then
+        assertThat(actual).containsKeys(
+                BootstrapTimings.Phase.CLASSPATH_SCAN,
+                BootstrapTimings.Phase.CUSTOM_ARRANGER_CONSTRUCTION,
+                BootstrapTimings.Phase.CUSTOM_ARRANGER_RANDOM_BUILD,
+                BootstrapTimings.Phase.ARRANGER_RANDOM_BUILD,
+                BootstrapTimings.Phase.MARKOV_CHAIN_LOAD,
+                BootstrapTimings.Phase.FAKER_RANDOMIZERS_INIT,
+                BootstrapTimings.Phase.ARRANGER_INITIALIZATION);
+        assertThat(actual.get(BootstrapTimings.Phase.ARRANGER_INITIALIZATION))
+                .isGreaterThanOrEqualTo(actual.get(BootstrapTimings.Phase.FAKER_RANDOMIZERS_INIT));
+    }
+
+    @Test
+    void summaryShouldListPhasesWithTheirDurations() {
+        //given
+        BootstrapTimings.Recorder recorder = new BootstrapTimings.Recorder();
+        recorder.record(BootstrapTimings.Phase.PROPERTIES_FILE_LOAD, 1_500_000);
+
+        //when
+        String actual = recorder.summary();
+
+        //then
+        assertThat(actual).startsWith("Test Arranger bootstrap:").containsPattern("arranger.properties load +1\\.5 ms");
+    }
+
+    @Test
+    void nestedPhasesShouldNotBeCountedTwice() {
+        //given
+        BootstrapTimings.Recorder recorder = new BootstrapTimings.Recorder();
+
+        //when
+        recorder.time(BootstrapTimings.Phase.CUSTOM_ARRANGER_CONSTRUCTION, () -> {
+            sleep(20);
+            return recorder.time(BootstrapTimings.Phase.CUSTOM_ARRANGER_RANDOM_BUILD, () -> sleep(100));
+        });
+
+        //then
+        Map<BootstrapTimings.Phase, Duration> actual = recorder.get();
+        assertThat(actual.get(BootstrapTimings.Phase.CUSTOM_ARRANGER_RANDOM_BUILD)).isGreaterThanOrEqualTo(Duration.ofMillis(100));
+        assertThat(actual.get(BootstrapTimings.Phase.CUSTOM_ARRANGER_CONSTRUCTION)).isBetween(Duration.ofMillis(20), Duration.ofMillis(100));
+    }
+
+    @Test
+    void shouldNotRecordPhasesAfterTheBootstrapIsFinished() {
+        //given
+        BootstrapTimings.Recorder recorder = new BootstrapTimings.Recorder();
+        recorder.record(BootstrapTimings.Phase.ARRANGER_RANDOM_BUILD, 1_000_000);
+        recorder.finish();
+
+        //when
+        recorder.record(BootstrapTimings.Phase.ARRANGER_RANDOM_BUILD, 1_000_000);
+        recorder.time(BootstrapTimings.Phase.ARRANGER_RANDOM_BUILD, () -> sleep(5));
+
+        //then
+        assertThat(recorder.get()).containsExactly(Map.entry(BootstrapTimings.Phase.ARRANGER_RANDOM_BUILD, Duration.ofMillis(1)));
+    }
+
+    @Test
+    void arrangerPhasesShouldNotGrowAfterTheBootstrap() {
+        //given
+        Arranger.some(String.class);
+        Map<BootstrapTimings.Phase, Duration> afterBootstrap = BootstrapTimings.get();
+
+        //when
+        ArrangersConfigurer.instance().defaultRandom();
+
+        //then
+        assertThat(BootstrapTimings.get()).isEqualTo(afterBootstrap);
+    }
+
+    private static Object sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.jeasy.random.EasyRandomParameters;
+import org.jeasy.random.annotation.Priority;
+import org.jeasy.random.api.Randomizer;
+import org.jeasy.random.api.RandomizerRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CachingRandomizerProviderTest {
+
+    @Test
+    void shouldSelectTheRandomizerWithTheHighestPriority() {
+        //given
+        CountingRegistry low = new CountingRegistry(() -> new ConstantRandomizer("low"));
+        CountingRegistry high = new CountingRegistry(() -> new HighPriorityRandomizer("high"));
+        CachingRandomizerProvider provider = providerWith(low, high);
+
+        //when
+        Randomizer<?> actual = provider.getRandomizerByType(String.class, null);
+
+        //then
+        assertThat(actual.getRandomValue()).isEqualTo("high");
+    }
+
+    @Test
+    void shouldStopQueryingTheRegistries_whenTheyReturnTheSameRandomizersAgain() throws Exception {
+        //given
+        Randomizer<?> randomizer = new ConstantRandomizer("value");
+        CountingRegistry registry = new CountingRegistry(() -> randomizer);
+        CachingRandomizerProvider provider = providerWith(registry);
+        Field field = Bean.class.getDeclaredField("text");
+
+        //when
+        List<Randomizer<?>> actual = List.of(
+                provider.getRandomizerByField(field, null),
+                provider.getRandomizerByField(field, null),
+                provider.getRandomizerByField(field, null),
+                provider.getRandomizerByField(field, null));
+
+        //then
+        assertThat(actual).containsOnly(randomizer);
+        assertThat(registry.lookups).isEqualTo(2);
+    }
+
+    @Test
+    void shouldQueryTheRegistriesEveryTime_whenTheyCreateNewRandomizers() {
+        //given
+        CountingRegistry registry = new CountingRegistry(() -> new ConstantRandomizer("value"));
+        CachingRandomizerProvider provider = providerWith(registry);
+
+        //when
+        for (int i = 0; i < 4; i++) {
+            provider.getRandomizerByType(String.class, null);
+        }
+
+        //then
+        assertThat(registry.lookups).isEqualTo(4);
+    }
+
+    @Test
+    void shouldQueryTheRegistriesOnce_whenNoneHasRandomizer() {
+        //given
+        CountingRegistry registry = new CountingRegistry(() -> null);
+        CachingRandomizerProvider provider = providerWith(registry);
+
+        //when
+        for (int i = 0; i < 4; i++) {
+            assertThat(provider.getRandomizerByType(Bean.class, null)).isNull();
+        }
+
+        //then
+        assertThat(registry.lookups).isEqualTo(1);
+    }
+
+    private static CachingRandomizerProvider providerWith(RandomizerRegistry... registries) {
+        CachingRandomizerProvider provider = new CachingRandomizerProvider();
+        provider.setRandomizerRegistries(new LinkedHashSet<>(List.of(registries)));
+        return provider;
+    }
+
+    private static class CountingRegistry implements RandomizerRegistry {
+        private final Supplier<Randomizer<?>> randomizers;
+        int lookups = 0;
+
+        CountingRegistry(Supplier<Randomizer<?>> randomizers) {
+            this.randomizers = randomizers;
+        }
+
+        @Override
+        public void init(EasyRandomParameters parameters) {
+        }
+
+        @Override
+        public Randomizer<?> getRandomizer(Field field) {
+            return getRandomizer(field.getType());
+        }
+
+        @Override
+        public Randomizer<?> getRandomizer(Class<?> type) {
+            lookups++;
+            return randomizers.get();
+        }
+    }
+
+    private static class ConstantRandomizer implements Randomizer<String> {
+        private final String value;
+
+        ConstantRandomizer(String value) {
+            this.value = value;
+        }
+
+        @Override
+        public String getRandomValue() {
+            return value;
+        }
+    }
+
+    @Priority(2)
+    private static class HighPriorityRandomizer extends ConstantRandomizer {
+        HighPriorityRandomizer(String value) {
+            super(value);
+        }
+    }
+
+    private static class Bean {
+        String text;
+    }
+}
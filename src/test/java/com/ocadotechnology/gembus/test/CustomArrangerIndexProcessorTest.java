@@ -0,0 +1,219 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import io.github.classgraph.ScanResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.tools.JavaCompiler;
+import javax.tools.ToolProvider;
+import java.io.IOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomArrangerIndexProcessorTest {
+
+    private static final String indexKey = "arranger.index.enable";
+
+    @TempDir
+    Path dir;
+
+    @AfterEach
+    void cleanupProperties() {
+        System.getProperties().remove(indexKey);
+        System.getProperties().remove(CustomArrangerIndexProcessor.ROOT_OPTION);
+        ArrangerSettings.reload();
+    }
+
+    @Test
+    void shouldIndexConcreteCustomArrangers() throws IOException {
+        //given
+        Path sources = writeSources();
+
+        //when
+        int result = compile(sources, dir.resolve("classes"));
+
+        //then
+        assertThat(result).isZero();
+        assertThat(Files.readAllLines(dir.resolve("classes").resolve(CustomArrangerIndexProcessor.INDEX_RESOURCE)))
+                .containsExactly("indexed.Holder$NestedArranger", "indexed.WidgetArranger");
+    }
+
+    @Test
+    void shouldLoadCustomArrangersFromIndex() throws IOException {
+        //given
+        Path classes = dir.resolve("classes");
+        compile(writeSources(), classes);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            //when
+            Optional<Stream<Class<CustomArranger>>> actual = ReflectionHelper.loadIndexedCustomArrangerClasses(classLoader, "indexed");
+
+            //then
+            assertThat(actual).isPresent();
+            assertThat(actual.get().map(Class::getName).collect(Collectors.toList()))
+                    .containsExactly("indexed.Holder$NestedArranger", "indexed.WidgetArranger");
+        }
+    }
+
+    @Test
+    void shouldUseIndexOnlyWhenEnabled() throws IOException {
+        //given
+        Path classes = dir.resolve("classes");
+        compile(writeSources(), classes);
+        System.setProperty(CustomArrangerIndexProcessor.ROOT_OPTION, "indexed");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            //when
+            Optional<Stream<Class<CustomArranger>>> byDefault = ReflectionHelper.indexedCustomArrangerClasses(classLoader, ArrangerSettings.reload());
+            System.setProperty(indexKey, "true");
+            Optional<Stream<Class<CustomArranger>>> whenEnabled = ReflectionHelper.indexedCustomArrangerClasses(classLoader, ArrangerSettings.reload());
+
+            //then
+            assertThat(byDefault).isEmpty();
+            assertThat(whenEnabled).isPresent();
+        }
+    }
+
+    @Test
+    void shouldFallBackToScanning_whenIndexDoesNotCoverRootPackage() throws IOException {
+        //given
+        Path classes = dir.resolve("classes");
+        compile(writeSources(), classes);
+        Files.writeString(classes.resolve(CustomArrangerIndexProcessor.INDEX_RESOURCE), "foreign.ForeignArranger\n");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            //when
+            Optional<Stream<Class<CustomArranger>>> actual = ReflectionHelper.loadIndexedCustomArrangerClasses(classLoader, "indexed");
+
+            //then
+            assertThat(actual).isEmpty();
+            try (ScanResult scanResult = ReflectionHelper.customArrangersScan("indexed").overrideClassLoaders(classLoader).scan()) {
+                assertThat(scanResult.getSubclasses(CustomArranger.class.getName()).getNames()).contains("indexed.WidgetArranger");
+            }
+        }
+    }
+
+    @Test
+    void shouldFallBackToScanningWhenThereIsNoIndex() throws IOException {
+        //given
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{dir.toUri().toURL()}, null)) {
+            //when
+            Optional<Stream<Class<CustomArranger>>> actual = ReflectionHelper.loadIndexedCustomArrangerClasses(classLoader, "indexed");
+
+            //then
+            assertThat(actual).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldGenerateProviderCreatingIndexedArrangersWithoutReflection_whenEnabled() throws IOException {
+        //given
+        Path classes = dir.resolve("classes");
+        int result = compile(writeSources(), classes,
+                "-A" + CustomArrangerIndexProcessor.GENERATE_PROVIDER_OPTION + "=true", "-A" + CustomArrangerIndexProcessor.ROOT_OPTION + "=indexed");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            //when
+            Map<Class<?>, Supplier<CustomArranger<?>>> actual = AndroidReflectionHelper.findGeneratedCustomArrangers(classLoader, "indexed");
+
+            //then
+            assertThat(result).isZero();
+            assertThat(actual.keySet()).extracting(Class::getName)
+                    .containsExactly("indexed.Holder$NestedArranger", "indexed.WidgetArranger");
+            assertThat(actual.values()).allSatisfy(factory -> assertThat(factory.get()).isInstanceOf(CustomArranger.class));
+        }
+    }
+
+    @Test
+    void shouldGenerateRootProviderInRootPackage_withArrangersFromRootPackageOnly() throws IOException {
+        //given
+        Path classes = dir.resolve("classes");
+        int result = compile(writeSources(), classes,
+                "-A" + CustomArrangerIndexProcessor.GENERATE_PROVIDER_OPTION + "=true", "-A" + CustomArrangerIndexProcessor.ROOT_OPTION + "=foreign");
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            //when
+            Map<Class<?>, Supplier<CustomArranger<?>>> actual = AndroidReflectionHelper.findGeneratedCustomArrangers(classLoader, "foreign");
+
+            //then
+            assertThat(result).isZero();
+            assertThat(classes.resolve("foreign").resolve(CustomArrangerIndexProcessor.ROOT_PROVIDER_SIMPLE_NAME + ".class")).exists();
+            assertThat(actual).isEmpty();
+            assertThat(AndroidReflectionHelper.findGeneratedCustomArrangers(classLoader, "indexed")).isEmpty();
+        }
+    }
+
+    @Test
+    void shouldNotGenerateProvider_whenNotEnabled() throws IOException {
+        //given
+        Path classes = dir.resolve("classes");
+        compile(writeSources(), classes);
+
+        try (URLClassLoader classLoader = new URLClassLoader(new URL[]{classes.toUri().toURL()}, getClass().getClassLoader())) {
+            //when
+            Map<Class<?>, Supplier<CustomArranger<?>>> actual = AndroidReflectionHelper.findGeneratedCustomArrangers(classLoader, "indexed");
+
+            //then
+            assertThat(actual).isEmpty();
+        }
+    }
+
+    private Path writeSources() throws IOException {
+        Path sources = Files.createDirectories(dir.resolve("src").resolve("indexed"));
+        Files.writeString(sources.resolve("Widget.java"),
+                "package indexed;\n" +
+                "public class Widget { String name; }\n");
+        Files.writeString(sources.resolve("WidgetArranger.java"),
+                "package indexed;\n" +
+                "public class WidgetArranger extends com.ocadotechnology.gembus.test.CustomArranger<Widget> {}\n");
+        Files.writeString(sources.resolve("AbstractArranger.java"),
+                "package indexed;\n" +
+                "public abstract class AbstractArranger<T> extends com.ocadotechnology.gembus.test.CustomArranger<T> {}\n");
+        Files.writeString(sources.resolve("Holder.java"),
+                "package indexed;\n" +
+                "public class Holder {\n" +
+                "    static class NestedArranger extends AbstractArranger<Holder> {}\n" +
+                "}\n");
+        return sources;
+    }
+
+    private int compile(Path sources, Path output, String... options) throws IOException {
+        Files.createDirectories(output);
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        List<String> arguments;
+        try (Stream<Path> files = Files.list(sources)) {
+            arguments = Stream.concat(
+                    Stream.of("-classpath", System.getProperty("java.class.path"),
+                              "-processor", CustomArrangerIndexProcessor.class.getName(),
+                              "-d", output.toString()),
+                    Stream.concat(Stream.of(options), files.map(Path::toString))).collect(Collectors.toList());
+        }
+        return compiler.run(null, null, null, arguments.toArray(new String[0]));
+    }
+}
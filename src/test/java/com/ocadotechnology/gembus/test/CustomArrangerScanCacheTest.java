@@ -0,0 +1,142 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CustomArrangerScanCacheTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void shouldReadTheCachedArrangers_whenClasspathIsUnchanged() {
+        //given
+        String fingerprint = CustomArrangerScanCache.fingerprint(classPath(), "com.example");
+        new CustomArrangerScanCache(dir.resolve("cache"), fingerprint).write(List.of(ParentArranger.class.getName()));
+
+        //when
+        Optional<List<Class<CustomArranger>>> actual = new CustomArrangerScanCache(dir.resolve("cache"),
+                CustomArrangerScanCache.fingerprint(classPath(), "com.example")).read(getClass().getClassLoader());
+
+        //then
+        assertThat(actual).contains(List.of((Class) ParentArranger.class));
+    }
+
+    @Test
+    void fingerprintShouldChange_whenClassIsAddedUnderRootPackage() throws IOException {
+        //given
+        String before = CustomArrangerScanCache.fingerprint(classPath(), "com.example");
+
+        //when
+        Files.write(dir.resolve("classes/com/example/nested/NewArranger.class"), new byte[]{1});
+
+        //then
+        assertThat(CustomArrangerScanCache.fingerprint(classPath(), "com.example")).isNotEqualTo(before);
+    }
+
+    @Test
+    void fingerprintShouldChange_whenClassUnderRootPackageIsRecompiled() throws IOException {
+        //given
+        String before = CustomArrangerScanCache.fingerprint(classPath(), "com.example");
+
+        //when
+        Path recompiled = Files.write(dir.resolve("classes/com/example/ExistingArranger.class"), new byte[]{2, 1});
+        Files.setLastModifiedTime(recompiled, FileTime.fromMillis(Files.getLastModifiedTime(recompiled).toMillis() + 2_000));
+
+        //then
+        assertThat(CustomArrangerScanCache.fingerprint(classPath(), "com.example")).isNotEqualTo(before);
+    }
+
+    @Test
+    void fingerprintShouldChange_whenJarIsModified() throws IOException {
+        //given
+        String before = CustomArrangerScanCache.fingerprint(classPath(), "com.example");
+
+        //when
+        Files.setLastModifiedTime(dir.resolve("library.jar"), FileTime.fromMillis(1_000_000L));
+
+        //then
+        assertThat(CustomArrangerScanCache.fingerprint(classPath(), "com.example")).isNotEqualTo(before);
+    }
+
+    @Test
+    void fingerprintShouldNotChange_whenClassIsAddedOutsideOfRootPackage() throws IOException {
+        //given
+        String before = CustomArrangerScanCache.fingerprint(classPath(), "com.example");
+
+        //when
+        Files.createDirectories(dir.resolve("classes/org/other"));
+        Files.write(dir.resolve("classes/org/other/Unrelated.class"), new byte[]{1});
+
+        //then
+        assertThat(CustomArrangerScanCache.fingerprint(classPath(), "com.example")).isEqualTo(before);
+    }
+
+    @Test
+    void shouldNotReadTheCache_whenFingerprintDiffers() {
+        //given
+        new CustomArrangerScanCache(dir.resolve("cache"), "stale").write(List.of(ParentArranger.class.getName()));
+
+        //when
+        Optional<List<Class<CustomArranger>>> actual = new CustomArrangerScanCache(dir.resolve("cache"), "current")
+                .read(getClass().getClassLoader());
+
+        //then
+        assertThat(actual).isEmpty();
+    }
+
+    @Test
+    void shouldNotReadTheCache_whenCachedArrangerNoLongerExists() {
+        //given
+        new CustomArrangerScanCache(dir.resolve("cache"), "current").write(List.of("com.example.RemovedArranger"));
+
+        //when
+        Optional<List<Class<CustomArranger>>> actual = new CustomArrangerScanCache(dir.resolve("cache"), "current")
+                .read(getClass().getClassLoader());
+
+        //then
+        assertThat(actual).isEmpty();
+    }
+
+    private String classPath() {
+        try {
+            Files.createDirectories(dir.resolve("classes/com/example/nested"));
+            Path existing = dir.resolve("classes/com/example/ExistingArranger.class");
+            if (!Files.exists(existing)) {
+                Files.write(existing, new byte[]{1, 2});
+            }
+            Path jar = dir.resolve("library.jar");
+            if (!Files.exists(jar)) {
+                Files.write(jar, new byte[]{1, 2, 3});
+            }
+            return dir.resolve("classes") + File.pathSeparator + jar;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
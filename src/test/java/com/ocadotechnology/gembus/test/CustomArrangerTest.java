@@ -91,6 +91,16 @@ public class CustomArrangerTest {
         assertThat(actual.recursion.get().text.string).isEqualTo(StringWrapperArranger.TEXT);
     }
 
+    @Test
+    void shouldSkipExcludedField_whenItsTypeHasCustomArranger() {
+        //when
+        final StringWrappers actual = Arranger.some(StringWrappers.class, "excluded");
+
+        //then
+        assertThat(actual.excluded).isNull();
+        assertThat(actual.arranged.string).isEqualTo(StringWrapperArranger.TEXT);
+    }
+
     @Test
     void shouldUseCustomArrangersWhenStartingFromManuallyCreatedCustomArranger() {
         //given
@@ -169,6 +179,11 @@ class StringWrapper {
     String string;
 }
 
+class StringWrappers {
+    StringWrapper arranged;
+    StringWrapper excluded;
+}
+
 class StringWrapperArranger extends CustomArranger<StringWrapper> {
     static final String TEXT = "created using custom arranger";
     @Override
@@ -47,4 +47,32 @@ class EnhancedRandomTest {
         //then
         assertThat(actual.text).isNotNull();
     }
-}
\ No newline at end of file
+
+    @Test
+    void lazilyBuiltRandomShouldBuildEasyRandomOnFirstUse() {
+        //given
+        final long builtBefore = ArrangerStatistics.instance.getEasyRandomInstancesBuilt();
+        final EnhancedRandom enhancedRandom = new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomDefaultParameters).buildLazily(new HashMap<>(), 1L);
+        final long builtAfterCreation = ArrangerStatistics.instance.getEasyRandomInstancesBuilt();
+
+        //when
+        enhancedRandom.nextObject(SomeClass.class);
+
+        //then
+        assertThat(builtAfterCreation).isEqualTo(builtBefore);
+        assertThat(ArrangerStatistics.instance.getEasyRandomInstancesBuilt()).isEqualTo(builtBefore + 1);
+    }
+
+    @Test
+    void lazilyBuiltRandomShouldGenerateTheSameValuesAsEagerlyBuiltOne() {
+        //given
+        final EnhancedRandom eager = new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomDefaultParameters).build(new HashMap<>(), 1L);
+        final EnhancedRandom lazy = new EnhancedRandom.Builder(ArrangersConfigurer::getEasyRandomDefaultParameters).buildLazily(new HashMap<>(), 1L);
+
+        //when
+        final SomeClass actual = lazy.nextObject(SomeClass.class);
+
+        //then
+        assertThat(actual).usingRecursiveComparison().isEqualTo(eager.nextObject(SomeClass.class));
+    }
+}
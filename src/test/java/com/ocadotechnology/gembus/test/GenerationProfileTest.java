@@ -0,0 +1,102 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GenerationProfileTest {
+
+    private static final String profileKey = "arranger.profile";
+
+    @AfterEach
+    void cleanupProperties() {
+        System.getProperties().remove(profileKey);
+        ArrangerSettings.reload();
+    }
+
+    @Test
+    void profilerShouldFollowReloadedSettings() {
+        //given
+        System.setProperty(profileKey, "true");
+        ArrangerSettings.reload();
+
+        //when
+        GenerationProfiler.profile(ProfiledWhenEnabled.class, () -> "enabled");
+        System.setProperty(profileKey, "false");
+        ArrangerSettings.reload();
+        GenerationProfiler.profile(ProfiledWhenDisabled.class, () -> "disabled");
+
+        //then
+        assertThat(GenerationProfiler.report())
+                .anySatisfy(line -> assertThat(line).startsWith(ProfiledWhenEnabled.class.getName()))
+                .noneSatisfy(line -> assertThat(line).startsWith(ProfiledWhenDisabled.class.getName()));
+    }
+
+    private static class ProfiledWhenEnabled {
+    }
+
+    private static class ProfiledWhenDisabled {
+    }
+
+    @Test
+    void shouldRankTypesByTotalGenerationTime() {
+        //given
+        GenerationProfile profile = new GenerationProfile();
+        profile.record(String.class, 1_000, 100);
+        profile.record(Long.class, 2_000_000, 5_000);
+        profile.record(String.class, 3_000, 300);
+
+        //when
+        List<String> report = profile.report();
+
+        //then
+        assertThat(report).hasSize(3);
+        assertThat(report.get(1)).startsWith(Long.class.getName());
+        assertThat(report.get(2)).startsWith(String.class.getName()).contains(" 2 ").contains(" 200");
+    }
+
+    @Test
+    void shouldReportP99FromTheHistogram() {
+        //given
+        GenerationProfile profile = new GenerationProfile();
+        for (int i = 0; i < 99; i++) {
+            profile.record(String.class, 10_000, 0);
+        }
+        profile.record(String.class, 5_000_000, 0);
+
+        //when
+        String report = profile.report().get(1);
+
+        //then
+        assertThat(report).contains(" 10.2 ").doesNotContain("5000.0");
+    }
+
+    @Test
+    void histogramBucketShouldContainTheRecordedValue() {
+        for (long nanos : new long[]{0, 1, 3, 4, 5, 7, 8, 1_023, 1_024, 123_456_789L, 1L << 40}) {
+            //when
+            long upperBound = GenerationProfile.upperBoundOf(GenerationProfile.bucketOf(nanos));
+
+            //then
+            assertThat(upperBound).isGreaterThanOrEqualTo(nanos).isLessThanOrEqualTo(nanos + nanos / 4 + 1);
+        }
+    }
+}
@@ -30,6 +30,7 @@ public class PropertiesWrapperTest {
     final static String overrideKey = "arranger.overridedefaults";
     private final String maxDepthKey = "arranger.maxRandomizationDepth";
     final static String androidCustomArrangers = "arranger.android.customArrangers";
+    private final String profileKey = "arranger.profile";
 
     @AfterEach
     public void cleanupProperties() {
@@ -38,6 +39,7 @@ public class PropertiesWrapperTest {
         System.getProperties().remove(overrideKey);
         System.getProperties().remove(maxDepthKey);
         System.getProperties().remove(androidCustomArrangers);
+        System.getProperties().remove(profileKey);
     }
 
     @Test
@@ -162,4 +164,25 @@ public class PropertiesWrapperTest {
         //then
         assertTrue(actual);
     }
+
+    @Test
+    public void shouldReturnFalseWhenProfileIsNotSet() {
+        //when
+        boolean actual = PropertiesWrapper.getProfileEnabled();
+
+        //then
+        assertFalse(actual);
+    }
+
+    @Test
+    public void shouldReturnTrueWhenProfileIsSetToTrue() {
+        //given
+        System.setProperty(profileKey, "true");
+
+        //when
+        boolean actual = PropertiesWrapper.getProfileEnabled();
+
+        //then
+        assertTrue(actual);
+    }
 }
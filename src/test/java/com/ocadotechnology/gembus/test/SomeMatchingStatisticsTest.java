@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2020 Ocado (marian.jureczko@ocado.com)
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.ocadotechnology.gembus.test;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SomeMatchingStatisticsTest {
+
+    private static final String warningThresholdKey = "arranger.someMatching.warningThreshold";
+
+    @AfterEach
+    void cleanupProperties() {
+        System.getProperties().remove(warningThresholdKey);
+        ArrangerSettings.reload();
+    }
+
+    @Test
+    void shouldTrackTriesPerCallSite() {
+        //given
+        Predicate<Integer> even = number -> number % 2 == 0;
+
+        //when
+        for (int i = 0; i < 20; i++) {
+            Arranger.someMatching(Integer.class, even);
+        }
+
+        //then
+        SomeMatchingStatistics.CallSite callSite = callSiteFor(even);
+        assertThat(callSite.getType()).isEqualTo(Integer.class);
+        assertThat(callSite.getCalls()).isEqualTo(20);
+        assertThat(callSite.getTries()).isGreaterThanOrEqualTo(20);
+        assertThat(callSite.getFailures()).isZero();
+        assertThat(callSite.getAcceptanceRate()).isEqualTo(20.0 / callSite.getTries());
+        assertThat(callSite.getTriesHistogram().values().stream().mapToLong(Long::longValue).sum()).isEqualTo(20);
+    }
+
+    @Test
+    void shouldWarnOnceAboutCallSiteWithLowAcceptanceRate() {
+        //given
+        Predicate<String> never = text -> false;
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err));
+
+        //when
+        try {
+            for (int i = 0; i < 2; i++) {
+                assertThatThrownBy(() -> Arranger.someMatching(String.class, never)).isInstanceOf(Arranger.CannotSatisfyPredicateException.class);
+            }
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        //then
+        assertThat(err.toString()).containsOnlyOnce("someMatching for java.lang.String");
+        assertThat(callSiteFor(never).getFailures()).isEqualTo(2);
+        assertThat(callSiteFor(never).getTriesHistogram()).containsEntry("failed", 2L);
+    }
+
+    @Test
+    void shouldUseTheWarningThresholdFromReloadedSettings() {
+        //given
+        Predicate<Long> never = number -> false;
+        System.setProperty(warningThresholdKey, "0");
+        ArrangerSettings.reload();
+        PrintStream originalErr = System.err;
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        System.setErr(new PrintStream(err));
+
+        //when
+        try {
+            assertThatThrownBy(() -> Arranger.someMatching(Long.class, never)).isInstanceOf(Arranger.CannotSatisfyPredicateException.class);
+        } finally {
+            System.setErr(originalErr);
+        }
+
+        //then
+        assertThat(err.toString()).doesNotContain("someMatching for java.lang.Long");
+    }
+
+    @Test
+    void shouldBucketTriesByPowersOfTwo() {
+        assertThat(SomeMatchingStatistics.bucketOf(1, true)).isEqualTo(0);
+        assertThat(SomeMatchingStatistics.bucketOf(2, true)).isEqualTo(1);
+        assertThat(SomeMatchingStatistics.bucketOf(4, true)).isEqualTo(2);
+        assertThat(SomeMatchingStatistics.bucketOf(5, true)).isEqualTo(3);
+        assertThat(SomeMatchingStatistics.bucketOf(250, true)).isEqualTo(8);
+        assertThat(SomeMatchingStatistics.bucketOf(252, false)).isEqualTo(9);
+    }
+
+    private static SomeMatchingStatistics.CallSite callSiteFor(Predicate<?> predicate) {
+        return SomeMatchingStatistics.get().stream()
+                .filter(callSite -> predicate.getClass().getName().split("/")[0].equals(callSite.getPredicate()))
+                .findFirst()
+                .orElseThrow();
+    }
+}